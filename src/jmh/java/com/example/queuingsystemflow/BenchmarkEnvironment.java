@@ -0,0 +1,54 @@
+package com.example.queuingsystemflow;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+
+/**
+ * 벤치마크 / 부하 테스트용 실행 환경 (embedded redis + 애플리케이션)
+ * - 진입 허용 스케쥴러는 측정에 영향을 주지 않도록 끔
+ */
+public final class BenchmarkEnvironment implements AutoCloseable {
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(final RedisServer redisServer, final ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    public static BenchmarkEnvironment start(final int redisPort, final boolean web, final String... properties) throws IOException {
+        var redisServer = new RedisServer(redisPort);
+        redisServer.start();
+
+        var context = new SpringApplicationBuilder(QueuingSystemFlowApplication.class)
+            .web(web ? WebApplicationType.REACTIVE : WebApplicationType.NONE)
+            .properties(
+                "spring.data.redis.port=" + redisPort,
+                "server.port=0",
+                "scheduler.enabled=false"
+            )
+            .properties(properties)
+            .run();
+
+        return new BenchmarkEnvironment(redisServer, context);
+    }
+
+    public <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int serverPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        redisServer.stop();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.queuingsystemflow.config;
+
+import com.example.queuingsystemflow.BenchmarkEnvironment;
+import com.example.queuingsystemflow.service.UserQueueService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * redis 클라이언트 설정(redis.client.*) 별 등록 / 대기 순번 조회 처리량 (./gradlew jmh -Pjmh.includes=RedisClientBenchmark)
+ * - 설정 조합마다 애플리케이션을 새로 띄워서 측정
+ * - computationThreads 는 publishOnScheduler=true 일 때 응답을 전달하는 스레드 수 (false 면 IO 스레드가 전달하므로 차이 없어야 함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(32)
+public class RedisClientBenchmark {
+
+    private static final int REDIS_PORT = 63793;
+    private static final String RANK_QUEUE = "benchmark-rank";
+    private static final int RANK_QUEUE_SIZE = 100_000;
+
+    @Param({"0", "2"})
+    public int ioThreads;
+
+    @Param({"0", "2"})
+    public int computationThreads;
+
+    @Param({"false", "true"})
+    public boolean publishOnScheduler;
+
+    private final AtomicLong nextUserId = new AtomicLong();
+
+    private BenchmarkEnvironment environment;
+    private UserQueueService userQueueService;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        environment = BenchmarkEnvironment.start(
+            REDIS_PORT,
+            false,
+            "redis.client.io-threads=" + ioThreads,
+            "redis.client.computation-threads=" + computationThreads,
+            "redis.client.publish-on-scheduler=" + publishOnScheduler
+        );
+        userQueueService = environment.getBean(UserQueueService.class);
+
+        var reactiveRedisTemplate = environment.getBean(ReactiveStringRedisTemplate.class);
+        reactiveRedisTemplate.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        Flux.range(0, RANK_QUEUE_SIZE)
+            .map(userId -> TypedTuple.of(String.valueOf(userId), (double) userId))
+            .buffer(10_000)
+            .concatMap(chunk -> reactiveRedisTemplate.opsForZSet().addAll("users:queue:%s:wait".formatted(RANK_QUEUE), chunk))
+            .blockLast();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public Long registerWaitQueue() {
+        return userQueueService.registerWaitQueue("benchmark-register", nextUserId.incrementAndGet()).block();
+    }
+
+    @Benchmark
+    public Long getRank() {
+        return userQueueService.getRank(RANK_QUEUE, ThreadLocalRandom.current().nextLong(RANK_QUEUE_SIZE)).block();
+    }
+
+    /**
+     * userId 직렬화 비용 (redis 호출 없음, gc 프로파일러의 gc.alloc.rate.norm 비교)
+     */
+    @State(Scope.Thread)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(1)
+    public static class Serialization {
+
+        private long userId = 1_000_000L;
+
+        @Benchmark
+        public byte[] stringSerializer() {
+            return StringRedisSerializer.UTF_8.serialize(Long.toString(nextUserId()));
+        }
+
+        @Benchmark
+        public byte[] userIdSerializer() {
+            return UserIdRedisSerializer.INSTANCE.serialize(nextUserId());
+        }
+
+        // 상수 폴딩을 막기 위해 호출마다 다른 userId
+        private long nextUserId() {
+            userId = userId < 1_000_000_000L ? userId + 7919 : 1_000_000L;
+            return userId;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.queuingsystemflow.load;
+
+import com.example.queuingsystemflow.BenchmarkEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * 대기열 API 부하 테스트 (./gradlew loadTest -Pusers=20000 -Pconcurrency=256)
+ * - embedded redis + 애플리케이션을 같은 JVM 에 띄우고, reactor netty HttpClient 로 실제 HTTP 요청을 보냄
+ * - 대기 등록 -> 대기 순번 조회 -> 대기 페이지 순으로 실행하고, 단계 별 처리량과 p50 / p99 / p999 지연 시간을 출력
+ * - 순번 조회 대상 사용자는 고정된 seed 로 뽑기 때문에 같은 인자로 실행하면 같은 요청이 재현됨
+ */
+public final class QueueLoadDriver {
+
+    private static final int REDIS_PORT = 63792;
+    private static final String QUEUE = "load";
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) throws Exception {
+        var users = intArg(args, "users", 20_000);
+        var concurrency = intArg(args, "concurrency", 256);
+
+        try (var environment = BenchmarkEnvironment.start(REDIS_PORT, true)) {
+            var client = HttpClient.create().baseUrl("http://localhost:" + environment.serverPort());
+            var random = new Random(SEED);
+            var rankUsers = random.ints(users, 0, users).toArray();
+
+            // JIT / 커넥션 풀 워밍업
+            run("warmup", Math.min(users, 2_000), concurrency, i -> get(client, "/api/v1/queue/rank?queue=warmup&user_id=" + i));
+
+            run("register", users, concurrency, i -> post(client, "/api/v1/queue?queue=" + QUEUE + "&user_id=" + i));
+            run("rank", users, concurrency, i -> get(client, "/api/v1/queue/rank?queue=" + QUEUE + "&user_id=" + rankUsers[i]));
+            run("waiting-room", users, concurrency, i -> get(client, "/waiting-room?queue=" + QUEUE + "&user_id=" + rankUsers[i] + "&redirect_url=/"));
+        }
+    }
+
+    private static void run(final String name, final int requests, final int concurrency, final IntFunction<Mono<Integer>> request) {
+        var latencies = new long[requests];
+        var errors = new AtomicLong();
+
+        var begin = System.nanoTime();
+        Flux.range(0, requests)
+            .flatMap(i -> Mono.defer(() -> {
+                var start = System.nanoTime();
+                return request.apply(i)
+                    .doOnNext(status -> {
+                        if (status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    })
+                    .doOnError(e -> errors.incrementAndGet())
+                    .onErrorResume(e -> Mono.empty())
+                    .doOnTerminate(() -> latencies[i] = System.nanoTime() - start);
+            }), concurrency)
+            .blockLast();
+        var elapsedNanos = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        System.out.printf(
+            "%-13s requests=%d errors=%d throughput=%.0f req/s p50=%.2fms p99=%.2fms p999=%.2fms%n",
+            name, requests, errors.get(), requests * 1_000_000_000.0 / elapsedNanos,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999)
+        );
+    }
+
+    private static Mono<Integer> get(final HttpClient client, final String uri) {
+        return client.get().uri(uri)
+            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+    }
+
+    private static Mono<Integer> post(final HttpClient client, final String uri) {
+        return client.post().uri(uri)
+            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+    }
+
+    // 정렬된 지연 시간(ns)에서 백분위 값을 ms 로 리턴
+    private static double percentile(final long[] sortedLatencies, final double percentile) {
+        var index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static int intArg(final String[] args, final String name, final int defaultValue) {
+        return Arrays.stream(args)
+            .filter(arg -> arg.startsWith("--" + name + "="))
+            .map(arg -> Integer.parseInt(arg.substring(name.length() + 3)))
+            .findFirst()
+            .orElse(defaultValue);
+    }
+}
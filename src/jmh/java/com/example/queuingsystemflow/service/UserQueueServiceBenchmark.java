@@ -0,0 +1,103 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.BenchmarkEnvironment;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserQueueService 주요 동작의 지연 시간 분포 (./gradlew jmh, embedded redis 대상)
+ * - SampleTime 모드로 p50 / p99 / p999 를 함께 리포트
+ * - allowUser 는 스레드 별 대기 큐에서 측정하고, 큐가 비기 전에 측정 밖에서 다시 채워서 모든 호출이 ALLOW_BATCH_SIZE 명을 허용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+public class UserQueueServiceBenchmark {
+
+    private static final int REDIS_PORT = 63791;
+    private static final String RANK_QUEUE = "benchmark-rank";
+    private static final int RANK_QUEUE_SIZE = 100_000;
+    private static final long ALLOW_BATCH_SIZE = 100L;
+    private static final int ALLOW_CALLS_PER_FILL = 100; // 대기 큐를 한 번 채울 때 허용 호출 수 (ALLOW_BATCH_SIZE * 100 명)
+
+    private final AtomicLong nextUserId = new AtomicLong();
+
+    private BenchmarkEnvironment environment;
+    private UserQueueService userQueueService;
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        environment = BenchmarkEnvironment.start(REDIS_PORT, false);
+        userQueueService = environment.getBean(UserQueueService.class);
+        reactiveRedisTemplate = environment.getBean(ReactiveStringRedisTemplate.class);
+
+        reactiveRedisTemplate.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        fill(RANK_QUEUE, RANK_QUEUE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public Long registerWaitQueue() {
+        return userQueueService.registerWaitQueue("benchmark-register", nextUserId.incrementAndGet()).block();
+    }
+
+    @Benchmark
+    public Long getRank() {
+        return userQueueService.getRank(RANK_QUEUE, ThreadLocalRandom.current().nextLong(RANK_QUEUE_SIZE)).block();
+    }
+
+    @Benchmark
+    public Long allowUser(final AllowQueue allowQueue) {
+        return userQueueService.allowUser(allowQueue.queue, ALLOW_BATCH_SIZE).block();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return userQueueService.generateToken("default", ThreadLocalRandom.current().nextLong(RANK_QUEUE_SIZE)).block();
+    }
+
+    private void fill(final String queue, final long size) {
+        Flux.range(0, Math.toIntExact(size))
+            .map(userId -> TypedTuple.of(String.valueOf(userId), (double) userId))
+            .buffer(10_000)
+            .concatMap(chunk -> reactiveRedisTemplate.opsForZSet().addAll("users:queue:%s:wait".formatted(queue), chunk))
+            .blockLast();
+    }
+
+    // allowUser 측정용 스레드 별 대기 큐
+    @State(Scope.Thread)
+    public static class AllowQueue {
+        private static final AtomicInteger NEXT_QUEUE = new AtomicInteger();
+
+        private final String queue = "benchmark-allow-" + NEXT_QUEUE.incrementAndGet();
+        private int remainingCalls; // 다시 채우기 전까지 남은 호출 수
+
+        // 대기 큐를 다 쓰면 다시 채우고, 그동안 쌓인 접속 허용 큐도 비움 (접속 허용 큐 크기가 반복마다 커지지 않도록, 측정 시간에서 제외)
+        @Setup(Level.Invocation)
+        public void refillIfDrained(final UserQueueServiceBenchmark benchmark) {
+            if (remainingCalls > 0) {
+                remainingCalls--;
+                return;
+            }
+            benchmark.reactiveRedisTemplate.delete("users:queue:%s:wait".formatted(queue), "users:queue:%s:proceed".formatted(queue)).block();
+            benchmark.fill(queue, ALLOW_BATCH_SIZE * ALLOW_CALLS_PER_FILL);
+            remainingCalls = ALLOW_CALLS_PER_FILL - 1;
+        }
+    }
+}
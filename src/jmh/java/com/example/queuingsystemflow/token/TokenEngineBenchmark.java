@@ -0,0 +1,80 @@
+package com.example.queuingsystemflow.token;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 생성 / 검증 비용 비교 (./gradlew jmh, gc profiler 로 호출 당 할당량 확인)
+ * - legacy*: 기존 UserQueueService.generateToken 구현 (호출마다 MessageDigest 생성 + String.format hex 변환 + equalsIgnoreCase)
+ * - sha256* / hmac*: TokenEngine
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenEngineBenchmark {
+
+    private TokenEngine sha256Engine;
+    private TokenEngine hmacEngine;
+    private String sha256Token;
+    private String hmacToken;
+    private long userId;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        sha256Engine = new TokenEngine(null, Duration.ofMinutes(5), Clock.systemUTC());
+        hmacEngine = new TokenEngine("benchmark-secret", Duration.ofMinutes(5), Clock.systemUTC());
+        sha256Token = legacyGenerate("default", 100L);
+        hmacToken = hmacEngine.generate("default", 100L);
+        userId = 100L;
+    }
+
+    @Benchmark
+    public String legacyGenerate() throws NoSuchAlgorithmException {
+        return legacyGenerate("default", userId);
+    }
+
+    @Benchmark
+    public boolean legacyVerify() throws NoSuchAlgorithmException {
+        return legacyGenerate("default", userId).equalsIgnoreCase(sha256Token);
+    }
+
+    @Benchmark
+    public String sha256Generate() {
+        return sha256Engine.generate("default", userId);
+    }
+
+    @Benchmark
+    public boolean sha256Verify() {
+        return sha256Engine.verify("default", userId, sha256Token);
+    }
+
+    @Benchmark
+    public String hmacGenerate() {
+        return hmacEngine.generate("default", userId);
+    }
+
+    @Benchmark
+    public boolean hmacVerify() {
+        return hmacEngine.verify("default", userId, hmacToken);
+    }
+
+    private static String legacyGenerate(final String queue, final Long userId) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        var input = "user-queue-%s-%d".formatted(queue, userId);
+        byte[] encodeHash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder hexString = new StringBuilder();
+        for (byte aByte : encodeHash) {
+            hexString.append(String.format("%02x", aByte));
+        }
+        return hexString.toString();
+    }
+}
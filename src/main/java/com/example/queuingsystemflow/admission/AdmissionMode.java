@@ -0,0 +1,7 @@
+package com.example.queuingsystemflow.admission;
+
+public enum AdmissionMode {
+    FIXED, // 스케쥴마다 고정된 수 만큼 허용
+    TOKEN_BUCKET, // 초당 허용 수(rate) + 최대 누적(burst) 기준으로 허용
+    AIMD // 접속 허용 큐 크기가 목표치보다 작으면 조금씩 늘리고, 넘으면 절반으로 줄여가며 허용
+}
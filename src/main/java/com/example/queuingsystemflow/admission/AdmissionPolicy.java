@@ -0,0 +1,49 @@
+package com.example.queuingsystemflow.admission;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 큐 별 진입 허용 정책
+ * - batchSize: fixed 모드의 스케쥴 당 허용 수, aimd 모드의 초기 허용 수
+ * - rate / burst: token-bucket 모드의 초당 허용 수 / 최대 누적 허용 수 (token-bucket 모드에서 필수)
+ * - maxConcurrent: 접속 허용 큐의 최대 크기, 모든 모드에 적용 (0: 제한 없음)
+ * - targetConcurrency / additiveIncrease / multiplicativeDecrease: aimd 모드의 목표 접속 허용 큐 크기 (aimd 모드에서 필수) / 증가량 / 감소 비율
+ */
+public record AdmissionPolicy(
+    @DefaultValue("fixed") AdmissionMode mode,
+    @DefaultValue("100") long batchSize,
+    @DefaultValue("0") double rate,
+    @DefaultValue("0") long burst,
+    @DefaultValue("0") long maxConcurrent,
+    @DefaultValue("0") long targetConcurrency,
+    @DefaultValue("10") long additiveIncrease,
+    @DefaultValue("0.5") double multiplicativeDecrease
+) {
+    // 허용 수가 항상 0 이 되어 큐가 멈추는 설정은 시작할 때 거절
+    public AdmissionPolicy {
+        if (mode == AdmissionMode.FIXED && batchSize <= 0) {
+            throw new IllegalArgumentException("admission mode=fixed requires a positive batch-size");
+        }
+        if (mode == AdmissionMode.TOKEN_BUCKET && (rate <= 0 || burst <= 0)) {
+            throw new IllegalArgumentException("admission mode=token-bucket requires a positive rate and burst");
+        }
+        if (mode == AdmissionMode.AIMD && (batchSize <= 0 || targetConcurrency <= 0 || additiveIncrease <= 0)) {
+            throw new IllegalArgumentException("admission mode=aimd requires a positive batch-size, target-concurrency and additive-increase");
+        }
+        if (mode == AdmissionMode.AIMD && (multiplicativeDecrease <= 0 || multiplicativeDecrease >= 1)) {
+            throw new IllegalArgumentException("admission mode=aimd requires a multiplicative-decrease between 0 and 1");
+        }
+        if (maxConcurrent < 0) {
+            throw new IllegalArgumentException("admission max-concurrent must not be negative");
+        }
+    }
+
+    public static AdmissionPolicy fixed(final long batchSize) {
+        return new AdmissionPolicy(AdmissionMode.FIXED, batchSize, 0, 0, 0, 0, 10, 0.5);
+    }
+
+    // 접속 허용 큐 크기를 조회해야 하는 정책인지 (필요 없으면 ZCARD 호출 생략)
+    public boolean requiresProceedSize() {
+        return maxConcurrent > 0 || mode == AdmissionMode.AIMD;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.queuingsystemflow.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * 진입 허용 정책 설정 (application.yaml 의 admission.*)
+ * - defaultPolicy: 별도 설정이 없는 큐에 적용되는 정책
+ * - queues: 큐 이름 별 정책
+ */
+@ConfigurationProperties(prefix = "admission")
+public record AdmissionProperties(
+    @DefaultValue AdmissionPolicy defaultPolicy,
+    Map<String, AdmissionPolicy> queues
+) {
+    public AdmissionProperties {
+        queues = queues == null ? Map.of() : Map.copyOf(queues);
+    }
+
+    public AdmissionPolicy policyOf(final String queue) {
+        return queues.getOrDefault(queue, defaultPolicy);
+    }
+}
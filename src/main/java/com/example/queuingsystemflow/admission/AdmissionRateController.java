@@ -0,0 +1,35 @@
+package com.example.queuingsystemflow.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * 스케쥴마다 큐 별로 몇 명을 허용할지 결정하는 컨트롤러
+ * - 큐 별 상태(누적 토큰, window 등)는 구현체가 관리
+ * - 큐마다 한 노드만 스케쥴을 수행하므로 (UserQueueScheduler lease) 상태는 노드 로컬에 둬도 됨
+ * - 큐 이름은 클라이언트가 정하므로 큐 별 상태는 stateCache() 로 만든 크기 / 유지 시간 제한 캐시에 보관
+ */
+public interface AdmissionRateController {
+
+    long MAX_QUEUES = 10_000; // 상태를 유지할 최대 큐 수
+    Duration STATE_IDLE_TIMEOUT = Duration.ofMinutes(10); // 스케쥴되지 않은 큐의 상태를 제거하기까지의 시간 (이후에는 처음 상태로 다시 시작)
+
+    // 큐 별 상태 캐시
+    static <T> Cache<String, T> stateCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(MAX_QUEUES)
+            .expireAfterAccess(STATE_IDLE_TIMEOUT)
+            .build();
+    }
+
+    AdmissionMode mode();
+
+    // 이번 스케쥴에 허용할 최대 사용자 수 (proceedSize: 현재 접속 허용 큐 크기, 정책상 필요 없으면 0)
+    long nextBatchSize(String queue, AdmissionPolicy policy, long proceedSize);
+
+    // 실제로 허용된 사용자 수 (대기자가 부족하거나 maxConcurrent 제한으로 요청보다 적게 허용될 수 있음)
+    default void onAdmitted(String queue, AdmissionPolicy policy, long admitted) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.queuingsystemflow.admission;
+
+import com.example.queuingsystemflow.service.UserQueueService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 큐 별 정책에 맞는 AdmissionRateController 를 골라 이번 스케쥴에 허용할 사용자 수를 계산
+ * - maxConcurrent 가 설정된 큐는 접속 허용 큐 크기를 넘지 않도록 제한
+ */
+@Component
+public class AdmissionRateLimiter {
+
+    private final UserQueueService userQueueService;
+    private final AdmissionProperties admissionProperties;
+    private final Map<AdmissionMode, AdmissionRateController> controllers = new EnumMap<>(AdmissionMode.class);
+
+    public AdmissionRateLimiter(
+        final UserQueueService userQueueService,
+        final AdmissionProperties admissionProperties,
+        final List<AdmissionRateController> controllers
+    ) {
+        this.userQueueService = userQueueService;
+        this.admissionProperties = admissionProperties;
+        controllers.forEach(controller -> this.controllers.put(controller.mode(), controller));
+    }
+
+    public Mono<Long> nextBatchSize(final String queue) {
+        var policy = admissionProperties.policyOf(queue);
+        var proceedSize = policy.requiresProceedSize() ? userQueueService.getProceedSize(queue) : Mono.just(0L);
+
+        return proceedSize.map(size -> {
+            var batchSize = controllers.get(policy.mode()).nextBatchSize(queue, policy, size);
+            if (policy.maxConcurrent() > 0) {
+                batchSize = Math.min(batchSize, policy.maxConcurrent() - size);
+            }
+            return Math.max(batchSize, 0L);
+        });
+    }
+
+    public void onAdmitted(final String queue, final long admitted) {
+        var policy = admissionProperties.policyOf(queue);
+        controllers.get(policy.mode()).onAdmitted(queue, policy, admitted);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.queuingsystemflow.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * AIMD (additive increase, multiplicative decrease) 방식의 피드백 제어
+ * - window 만큼 모두 허용된 경우에만 window 를 additiveIncrease 만큼 늘리고 (대기자가 부족하거나 남은 자리로 잘린 스케쥴은 늘리지 않음)
+ * - 접속 허용 큐 크기가 targetConcurrency 이상이면 multiplicativeDecrease 비율로 줄여서, 실제 처리 가능한 만큼만 허용되도록 수렴
+ * - window 는 [1, targetConcurrency] 범위로 유지
+ */
+@Component
+public class AimdAdmissionRateController implements AdmissionRateController {
+
+    private final Cache<String, Window> windows = AdmissionRateController.stateCache();
+
+    @Override
+    public AdmissionMode mode() {
+        return AdmissionMode.AIMD;
+    }
+
+    @Override
+    public long nextBatchSize(final String queue, final AdmissionPolicy policy, final long proceedSize) {
+        return windows.get(queue, key -> new Window(policy.batchSize()))
+            .next(policy, proceedSize);
+    }
+
+    @Override
+    public void onAdmitted(final String queue, final AdmissionPolicy policy, final long admitted) {
+        var window = windows.getIfPresent(queue);
+        if (window != null) {
+            window.settle(policy, admitted);
+        }
+    }
+
+    private static final class Window {
+        private double size;
+        private long requested; // 이번 스케쥴에 window 전체를 요청했는지 확인하기 위한 요청 수
+
+        private Window(final double size) {
+            this.size = size;
+        }
+
+        private synchronized long next(final AdmissionPolicy policy, final long proceedSize) {
+            size = clamp(policy, size);
+            if (proceedSize >= policy.targetConcurrency()) {
+                size = clamp(policy, size * policy.multiplicativeDecrease());
+                requested = 0;
+                return 0;
+            }
+
+            requested = Math.min((long) size, policy.targetConcurrency() - proceedSize);
+            return requested;
+        }
+
+        // window 전체가 허용된 경우에만 늘림
+        private synchronized void settle(final AdmissionPolicy policy, final long admitted) {
+            if (requested > 0 && requested == (long) size && admitted >= requested) {
+                size = clamp(policy, size + policy.additiveIncrease());
+            }
+            requested = 0;
+        }
+
+        private static double clamp(final AdmissionPolicy policy, final double size) {
+            return Math.min(Math.max(size, 1), policy.targetConcurrency());
+        }
+    }
+}
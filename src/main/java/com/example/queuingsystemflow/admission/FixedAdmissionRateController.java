@@ -0,0 +1,17 @@
+package com.example.queuingsystemflow.admission;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class FixedAdmissionRateController implements AdmissionRateController {
+
+    @Override
+    public AdmissionMode mode() {
+        return AdmissionMode.FIXED;
+    }
+
+    @Override
+    public long nextBatchSize(final String queue, final AdmissionPolicy policy, final long proceedSize) {
+        return policy.batchSize();
+    }
+}
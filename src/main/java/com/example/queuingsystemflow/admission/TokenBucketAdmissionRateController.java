@@ -0,0 +1,68 @@
+package com.example.queuingsystemflow.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+@Component
+public class TokenBucketAdmissionRateController implements AdmissionRateController {
+
+    private final LongSupplier nanoClock;
+    private final Cache<String, Bucket> buckets = AdmissionRateController.stateCache();
+
+    public TokenBucketAdmissionRateController() {
+        this(System::nanoTime);
+    }
+
+    TokenBucketAdmissionRateController(final LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public AdmissionMode mode() {
+        return AdmissionMode.TOKEN_BUCKET;
+    }
+
+    @Override
+    public long nextBatchSize(final String queue, final AdmissionPolicy policy, final long proceedSize) {
+        return buckets.get(queue, key -> new Bucket(policy.burst(), nanoClock.getAsLong()))
+            .reserve(policy, nanoClock.getAsLong());
+    }
+
+    @Override
+    public void onAdmitted(final String queue, final AdmissionPolicy policy, final long admitted) {
+        var bucket = buckets.getIfPresent(queue);
+        if (bucket != null) {
+            bucket.settle(admitted);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+        private long reserved;
+
+        private Bucket(final double tokens, final long nowNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        // 지난 스케쥴 이후 흐른 시간 만큼 토큰을 채우고, 정수 개 만큼 예약
+        private synchronized long reserve(final AdmissionPolicy policy, final long nowNanos) {
+            var elapsedSeconds = (nowNanos - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(policy.burst(), tokens + elapsedSeconds * policy.rate());
+            lastRefillNanos = nowNanos;
+
+            reserved = (long) tokens;
+            tokens -= reserved;
+            return reserved;
+        }
+
+        // 허용되지 못한 만큼 토큰 반환 (대기자가 없던 시간 만큼은 burst 까지만 누적됨)
+        private synchronized void settle(final long admitted) {
+            tokens += Math.max(reserved - admitted, 0);
+            reserved = 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.queuingsystemflow.config;
+
+/**
+ * 대기 큐 정렬 방식 (대기 큐 score 계산 방식)
+ */
+public enum QueueOrdering {
+    TIMESTAMP("timestamp"), // 초 단위 unix timestamp, 같은 초에 등록된 사용자는 userId 문자열 순
+    SEQUENCE("sequence"), // 큐 별 등록 순번 (1, 2, 3, ...)
+    TIME_SEQUENCE("time-sequence"); // redis 서버 시간(µs), 같은 µs 안에서는 이전 score + 1, 기존 timestamp score 보다 항상 뒤에 정렬
+
+    private final String scriptArgument;
+
+    QueueOrdering(final String scriptArgument) {
+        this.scriptArgument = scriptArgument;
+    }
+
+    public String scriptArgument() {
+        return scriptArgument;
+    }
+}
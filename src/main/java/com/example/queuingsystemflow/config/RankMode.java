@@ -0,0 +1,9 @@
+package com.example.queuingsystemflow.config;
+
+/**
+ * 대기 순번 조회 방식
+ */
+public enum RankMode {
+    EXACT, // 요청마다 ZRANK
+    APPROXIMATE // 등록 순번 - 누적 허용 수 (sequence 정렬 방식 전용, 요청마다 sorted set 조회 없음)
+}
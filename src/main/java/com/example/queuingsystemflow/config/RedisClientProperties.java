@@ -0,0 +1,18 @@
+package com.example.queuingsystemflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * redis 클라이언트 (lettuce) 설정 (application.yaml 의 redis.client.*)
+ * - ioThreads: netty IO 스레드 수, 0 이면 lettuce 기본값 (CPU 코어 수)
+ * - computationThreads: 응답 처리 스레드 수, 0 이면 lettuce 기본값 (CPU 코어 수)
+ * - publishOnScheduler: 응답을 IO 스레드 대신 computation 스레드에서 전달할지 여부 (응답 후 처리가 무거울 때 IO 스레드 점유 방지)
+ */
+@ConfigurationProperties(prefix = "redis.client")
+public record RedisClientProperties(
+    @DefaultValue("0") int ioThreads,
+    @DefaultValue("0") int computationThreads,
+    @DefaultValue("false") boolean publishOnScheduler
+) {
+}
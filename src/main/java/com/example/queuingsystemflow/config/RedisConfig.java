@@ -0,0 +1,51 @@
+package com.example.queuingsystemflow.config;
+
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * redis 클라이언트 설정
+ * - lettuce 스레드 수 / 응답 전달 스레드는 redis.client.* 로 조정
+ * - reactive 명령은 모두 하나의 공유 연결로 pipeline 되므로 연결 풀 / executePipelined flush 정책은 두지 않음
+ * - userId 를 값으로 쓰는 명령은 문자열 변환 없이 직렬화하는 userIdRedisTemplate 사용
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceThreadsCustomizer(final RedisClientProperties redisClientProperties) {
+        return builder -> {
+            if (redisClientProperties.ioThreads() > 0) {
+                builder.ioThreadPoolSize(redisClientProperties.ioThreads());
+            }
+            if (redisClientProperties.computationThreads() > 0) {
+                builder.computationThreadPoolSize(redisClientProperties.computationThreads());
+            }
+        };
+    }
+
+    // spring boot 가 만든 옵션 (명령 / 연결 timeout, SSL, cluster topology 갱신 등) 을 그대로 두고 publishOnScheduler 만 바꿈
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer lettuceClientOptionsCustomizer(final RedisClientProperties redisClientProperties) {
+        return builder -> builder.build().getClientOptions()
+            .ifPresent(options -> builder.clientOptions(
+                options.mutate() // cluster 면 ClusterClientOptions 의 builder
+                    .publishOnScheduler(redisClientProperties.publishOnScheduler())
+                    .build()
+            ));
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, Long> userIdRedisTemplate(final ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        var serializationContext = RedisSerializationContext.<String, Long>newSerializationContext(StringRedisSerializer.UTF_8)
+            .value(UserIdRedisSerializer.INSTANCE)
+            .build();
+        return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.queuingsystemflow.config;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * userId (Long) <-> 10진수 ASCII bytes
+ * - 기존 문자열 member, lua 스크립트 (tonumber) 와 같은 형식이라 데이터 변환 없이 함께 사용 가능
+ * - Long.toString / String.getBytes 를 거치지 않고 바로 bytes 로 변환해서 호출 당 할당을 줄임
+ */
+public final class UserIdRedisSerializer implements RedisSerializer<Long> {
+
+    public static final UserIdRedisSerializer INSTANCE = new UserIdRedisSerializer();
+
+    private UserIdRedisSerializer() {
+    }
+
+    @Override
+    public byte[] serialize(final Long value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        long remaining = value;
+        if (remaining == Long.MIN_VALUE) { // 부호를 바꿀 수 없는 유일한 값
+            return Long.toString(remaining).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        boolean negative = remaining < 0;
+        if (negative) {
+            remaining = -remaining;
+        }
+        int length = digits(remaining) + (negative ? 1 : 0);
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= (negative ? 1 : 0); i--) {
+            bytes[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        if (negative) {
+            bytes[0] = '-';
+        }
+        return bytes;
+    }
+
+    @Override
+    public Long deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        boolean negative = bytes[0] == '-';
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0; // 음수로 누적해야 Long.MIN_VALUE 까지 표현 가능
+        for (int i = negative ? 1 : 0; i < bytes.length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10 || value * 10 < limit + digit) {
+                throw invalid(bytes);
+            }
+            value = value * 10 - digit;
+        }
+        if (negative && bytes.length == 1) {
+            throw invalid(bytes);
+        }
+        return negative ? value : -value;
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return Long.class;
+    }
+
+    private static SerializationException invalid(final byte[] bytes) {
+        return new SerializationException("Invalid user id: " + new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    private static int digits(final long value) {
+        long bound = 10;
+        for (int digits = 1; digits < 19; digits++) {
+            if (value < bound) {
+                return digits;
+            }
+            bound *= 10;
+        }
+        return 19;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.queuingsystemflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대기열 설정 (application.yaml 의 queue.*)
+ * - ordering: 대기 큐 정렬 방식
+ * - lanes: 대기 레인 별 허용 비중 (ex. vip: 50, member: 30, general: 20), 없으면 general 레인 하나
+ *   (사용자가 레인을 고를 수 없도록 general 이외 레인은 internalApi.key 를 가진 내부 서비스만 일괄 등록 API 로 등록)
+ * - shards: 큐 별 sub-shard 수 (ex. hot-event: 4), 사용자는 userId 에 따라 하나의 shard 에 등록됨
+ *   (shard 별 sequence 는 서로 비교할 수 없으므로 ordering=sequence 와 함께 사용 불가,
+ *    time-sequence 는 shard 가 있는 노드의 시계를 쓰므로 노드 간 시계 차이만큼 shard 사이의 순서가 바뀔 수 있음)
+ * - rank.mode=approximate 는 등록 순번이 1부터 빠짐없이 증가해야 하므로 ordering=sequence, 레인 하나, shard 하나에서만 사용 가능
+ */
+@ConfigurationProperties(prefix = "queue")
+public record UserQueueProperties(
+    @DefaultValue("time-sequence") QueueOrdering ordering,
+    @DefaultValue Proceed proceed,
+    @DefaultValue Token token,
+    @DefaultValue AdmittedCache admittedCache,
+    @DefaultValue Rank rank,
+    @DefaultValue Coalescing coalescing,
+    @DefaultValue RegistrationBuffer registrationBuffer,
+    @DefaultValue Cluster cluster,
+    @DefaultValue Events events,
+    @DefaultValue Metrics metrics,
+    @DefaultValue InternalApi internalApi,
+    Map<String, Integer> lanes,
+    Map<String, Integer> shards
+) {
+    public static final String GENERAL_LANE = "general"; // 레인을 지정하지 않은 사용자의 레인 (기존 대기 큐)
+
+    public UserQueueProperties {
+        lanes = lanes == null || lanes.isEmpty()
+            ? Map.of(GENERAL_LANE, 1)
+            : Collections.unmodifiableMap(new LinkedHashMap<>(lanes));
+        if (!lanes.containsKey(GENERAL_LANE)) {
+            throw new IllegalArgumentException("queue.lanes requires a %s lane".formatted(GENERAL_LANE));
+        }
+        if (lanes.values().stream().anyMatch(weight -> weight == null || weight <= 0)) {
+            throw new IllegalArgumentException("queue.lanes weights must be positive");
+        }
+        shards = shards == null ? Map.of() : Map.copyOf(shards);
+        if (shards.values().stream().anyMatch(count -> count == null || count <= 0)) {
+            throw new IllegalArgumentException("queue.shards counts must be positive");
+        }
+        if (ordering == QueueOrdering.SEQUENCE && shards.values().stream().anyMatch(count -> count > 1)) {
+            throw new IllegalArgumentException("queue.shards requires queue.ordering=time-sequence or timestamp");
+        }
+        if (events.enabled() && events.maxLength() <= 0) {
+            throw new IllegalArgumentException("queue.events.max-length must be positive");
+        }
+        if (metrics.maxActiveQueues() < 0) {
+            throw new IllegalArgumentException("queue.metrics.max-active-queues must not be negative");
+        }
+        if (rank.mode() == RankMode.APPROXIMATE && (ordering != QueueOrdering.SEQUENCE || lanes.size() > 1 || !shards.isEmpty())) {
+            throw new IllegalArgumentException("queue.rank.mode=approximate requires queue.ordering=sequence, a single lane and no shards");
+        }
+    }
+
+    // 큐의 sub-shard 수 (지정하지 않은 큐는 1)
+    public int shardsOf(final String queue) {
+        return shards.getOrDefault(queue, 1);
+    }
+
+    // general 레인이 항상 처음, 나머지는 설정 순서대로
+    public List<String> laneNames() {
+        List<String> names = new ArrayList<>(lanes.size());
+        names.add(GENERAL_LANE);
+        lanes.keySet().stream()
+            .filter(lane -> !GENERAL_LANE.equals(lane))
+            .forEach(names::add);
+        return names;
+    }
+
+    /**
+     * 접속 허용 큐 설정
+     * - sessionWindow: 허용된 사용자가 접속 허용 상태를 유지하는 시간, 이후에는 만료되어 자리가 다음 대기자에게 넘어감
+     * - extendOnTouch: /touch 호출 시 sessionWindow 를 다시 시작할지 여부
+     * - sweepBatchSize: 스케쥴 한 번에 큐마다 정리할 최대 만료 사용자 수
+     */
+    public record Proceed(
+        @DefaultValue("5m") Duration sessionWindow,
+        @DefaultValue("true") boolean extendOnTouch,
+        @DefaultValue("1000") long sweepBatchSize
+    ) {
+    }
+
+    /**
+     * 대기열 통과 토큰 설정
+     * - secret: HMAC 키, 비어 있으면 키 없는 SHA-256 토큰 (기존 방식)
+     * - ttl: HMAC 토큰 유효 시간
+     */
+    public record Token(
+        String secret,
+        @DefaultValue("5m") Duration ttl
+    ) {
+    }
+
+    /**
+     * 접속 허용 사용자 로컬 캐시 설정
+     * - maxSize: 최대 저장 사용자 수
+     * - ttl: 저장 후 유지 시간
+     */
+    public record AdmittedCache(
+        @DefaultValue("100000") long maxSize,
+        @DefaultValue("10s") Duration ttl
+    ) {
+    }
+
+    /**
+     * 대기 순번 조회 설정
+     * - mode: exact (ZRANK), approximate (등록 순번 - 누적 허용 수)
+     * - snapshotTtl: approximate 모드에서 큐 별 누적 허용 수를 공유하는 시간
+     * - maxSize: approximate 모드에서 등록 순번을 저장할 최대 사용자 수
+     */
+    public record Rank(
+        @DefaultValue("exact") RankMode mode,
+        @DefaultValue("1s") Duration snapshotTtl,
+        @DefaultValue("100000") long maxSize
+    ) {
+    }
+
+    /**
+     * 동일 사용자 조회(/rank, /allowed) 합치기 설정
+     * - ttl: 조회 결과를 같은 사용자의 다음 요청과 공유하는 시간 (0 이면 조회 중인 요청만 공유)
+     * - maxSize: 최대 저장 조회 수
+     */
+    public record Coalescing(
+        @DefaultValue("200ms") Duration ttl,
+        @DefaultValue("100000") long maxSize
+    ) {
+    }
+
+    /**
+     * 대기열 등록 write-behind 버퍼 설정
+     * - enabled: 등록 요청을 모아서 한 번에 보낼지 여부
+     * - maxSize: 큐 별 최대 대기 요청 수, 넘으면 바로 거절
+     * - batchSize: 한 번에 보낼 최대 요청 수, 이만큼 쌓이면 flushInterval 을 기다리지 않고 보냄
+     * - flushInterval: 쌓인 요청을 보내는 주기
+     */
+    public record RegistrationBuffer(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int maxSize,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5ms") Duration flushInterval
+    ) {
+    }
+
+    /**
+     * redis cluster 설정
+     * - hashTags: 큐 별 key 를 {queue} hash tag 로 묶어서 큐 단위 스크립트가 하나의 slot 에서 실행되도록 함
+     *   (활성 큐 목록은 여러 slot 에 걸치므로 스크립트 밖에서 갱신, 기존 key 와 이름이 달라지므로 빈 상태에서 켜야 함)
+     */
+    public record Cluster(
+        @DefaultValue("false") boolean hashTags
+    ) {
+    }
+
+    /**
+     * 대기열 이벤트 (등록 / 진입 허용 / 만료) redis stream 설정
+     * - enabled: 큐 별 users:queue:%s:events stream 에 등록 / 허용 / 만료 스크립트 안에서 같이 기록
+     * - maxLength: stream 에 남길 대략적인 최대 이벤트 수 (XADD MAXLEN ~)
+     */
+    public record Events(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100000") long maxLength
+    ) {
+    }
+
+    /**
+     * 내부 서비스 전용 API 설정
+     * - key: general 이외 레인에 등록할 때 X-Queue-Internal-Key 헤더로 보내야 하는 키, 비어 있으면 API 로는 general 레인에만 등록 가능
+     */
+    public record InternalApi(
+        String key
+    ) {
+        public boolean accepts(final String requestKey) {
+            return key != null && !key.isEmpty() && requestKey != null
+                && MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8), requestKey.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 큐 별 지표 설정
+     * - maxActiveQueues: 설정에 없는 큐 중 queue tag 에 이름을 남길 대기자가 있는 큐의 최대 수 (나머지는 other)
+     */
+    public record Metrics(
+        @DefaultValue("100") int maxActiveQueues
+    ) {
+    }
+}
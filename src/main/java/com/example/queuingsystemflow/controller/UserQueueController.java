@@ -1,26 +1,39 @@
 package com.example.queuingsystemflow.controller;
 
+import com.example.queuingsystemflow.config.UserQueueProperties;
 import com.example.queuingsystemflow.dto.AllowUserResponse;
 import com.example.queuingsystemflow.dto.AllowedUserResponse;
+import com.example.queuingsystemflow.dto.BulkRegisterUserResponse;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
 import com.example.queuingsystemflow.dto.RankNumberResponse;
 import com.example.queuingsystemflow.dto.RegisterUserResponse;
+import com.example.queuingsystemflow.dto.UserRankResponse;
 import com.example.queuingsystemflow.service.UserQueueService;
+import com.example.queuingsystemflow.service.UserQueueStatusBroadcaster;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseCookie;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
+import static com.example.queuingsystemflow.exception.ErrorCode.QUEUE_LANE_FORBIDDEN;
+
 @RestController
 @RequestMapping("/api/v1/queue")
 @RequiredArgsConstructor
 public class UserQueueController {
 
+    private static final String INTERNAL_KEY_HEADER = "X-Queue-Internal-Key";
+
     private final UserQueueService userQueueService;
+    private final UserQueueStatusBroadcaster userQueueStatusBroadcaster;
+    private final UserQueueProperties userQueueProperties;
 
-    // 등록할 수 있는 API path
+    // 등록할 수 있는 API path (사용자가 직접 호출하므로 레인을 고를 수 없고 항상 general 레인)
     @PostMapping("")
     public Mono<RegisterUserResponse> registerUser(
         @RequestParam(name = "user_id") Long userId,
@@ -30,6 +43,25 @@ public class UserQueueController {
             .map(RegisterUserResponse::new);
     }
 
+    // 일괄 등록 API (JSON 배열 또는 NDJSON 으로 받은 순서대로 등록)
+    // general 이외 레인은 회원 등급 등을 확인한 내부 서비스만 등록할 수 있도록 X-Queue-Internal-Key 헤더 (queue.internal-api.key) 필요
+    @PostMapping(
+        value = "/bulk",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<BulkRegisterUserResponse> registerUsers(
+        @RequestBody Flux<Long> userIds,
+        @RequestParam(defaultValue = "default") String queue,
+        @RequestParam(defaultValue = UserQueueProperties.GENERAL_LANE) String lane,
+        @RequestHeader(name = INTERNAL_KEY_HEADER, required = false) String internalKey
+    ) {
+        if (!UserQueueProperties.GENERAL_LANE.equals(lane) && !userQueueProperties.internalApi().accepts(internalKey)) {
+            return Flux.error(QUEUE_LANE_FORBIDDEN.build(lane));
+        }
+        return userQueueService.registerWaitQueueBulk(queue, lane, userIds);
+    }
+
     @PostMapping("/allow")
     public Mono<AllowUserResponse> allowUser(
         @RequestParam(defaultValue = "default") String queue,
@@ -45,7 +77,7 @@ public class UserQueueController {
         @RequestParam(defaultValue = "default") String queue,
         @RequestParam(name = "token") String token
     ) {
-        return userQueueService.isAllowedByToken(queue, userId, token)
+        return userQueueService.isAllowedByToken(queue, userId, presentedToken)
             .map(AllowedUserResponse::new);
     }
 
@@ -58,13 +90,42 @@ public class UserQueueController {
             .map(RankNumberResponse::new);
     }
 
+    // 대기 순번 일괄 조회 API (JSON 배열 또는 NDJSON)
+    @PostMapping(
+        value = "/ranks",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<UserRankResponse> getUserRanks(
+        @RequestBody Flux<Long> userIds,
+        @RequestParam(defaultValue = "default") String queue
+    ) {
+        return userQueueService.getRanks(queue, userIds);
+    }
+
+    // 대기 순번 / 접속 허용 여부가 바뀔 때마다 push (Server-Sent Events)
+    @GetMapping(value = "/rank/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<QueueStatusResponse> streamUserRank(
+        @RequestParam(name = "user_id") Long userId,
+        @RequestParam(defaultValue = "default") String queue
+    ) {
+        return userQueueStatusBroadcaster.subscribe(queue, userId);
+    }
+
     @GetMapping("/touch")
     Mono<String> touch(
         @RequestParam(name = "user_id") Long userId,
         @RequestParam(defaultValue = "default") String queue,
         ServerWebExchange exchange
     )  {
-        return Mono.defer(() -> userQueueService.generateToken(queue, userId))
+        var cookieValue = exchange.getRequest().getCookies().getFirst("user-queue-%s-token".formatted(queue));
+        var presentedToken = cookieValue == null ? "" : cookieValue.getValue();
+
+        // 이미 발급된 토큰으로 확인된 접속 허용 사용자만 접속 허용 유지 시간 연장 (user_id 만으로는 다른 사용자의 자리를 붙잡아 둘 수 없음)
+        return userQueueService.isAllowedByToken(queue, userId, presentedToken)
+            .filter(allowed -> allowed)
+            .flatMap(allowed -> userQueueService.touchProceed(queue, userId))
+            .then(Mono.defer(() -> userQueueService.generateToken(queue, userId)))
             .map(token -> {
                 exchange.getResponse().addCookie(
                     ResponseCookie.from("user-queue-%s-token".formatted(queue), token)
@@ -33,8 +33,7 @@ public class WaitingRoomController {
             .flatMap(allowed -> Mono.just(Rendering.redirectTo(redirectUrl).build())) // 페이지 이동
             .switchIfEmpty(
                 // 입장이 허용되지 않았다면, 대기 등록 및 웹페이지에 필요한 데이터 전달
-                userQueueService.registerWaitQueue(queue, userId)
-                    .onErrorResume(ex -> userQueueService.getRank(queue, userId)) // 등록이 되어있다면, 대기 번호 조회
+                userQueueService.registerWaitQueueOrGetRank(queue, userId) // 등록이 되어있다면, 기존 대기 번호 조회 (사용자가 직접 들어오므로 general 레인)
                     .map(rank -> Rendering.view("waiting-room.html")
                         .modelAttribute("number", rank)
                         .modelAttribute("userId", userId)
@@ -0,0 +1,8 @@
+package com.example.queuingsystemflow.dto;
+
+public record BulkRegisterUserResponse(
+    Long userId,
+    Long rank,
+    Boolean registered
+) {
+}
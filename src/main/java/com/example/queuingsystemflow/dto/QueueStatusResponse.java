@@ -0,0 +1,7 @@
+package com.example.queuingsystemflow.dto;
+
+public record QueueStatusResponse(
+    Long rank,
+    Boolean allowed
+) {
+}
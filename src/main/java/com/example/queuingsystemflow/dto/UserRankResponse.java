@@ -0,0 +1,7 @@
+package com.example.queuingsystemflow.dto;
+
+public record UserRankResponse(
+    Long userId,
+    Long rank
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.queuingsystemflow.event;
+
+public record QueueEvent(
+    String queue,
+    int shard, // 이벤트가 기록된 shard (shard 를 나누지 않은 큐는 0)
+    String id, // stream entry id (acknowledge / replay 기준)
+    QueueEventType type,
+    Long userId
+) {
+}
@@ -0,0 +1,196 @@
+package com.example.queuingsystemflow.event;
+
+import com.example.queuingsystemflow.store.RedisQueueStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.stream.StreamReceiver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 대기열 이벤트 (등록 / 진입 허용 / 만료) 소비 API
+ * - 이벤트는 queue.events.enabled 일 때 등록 / 허용 / 만료 스크립트 안에서 큐 별 stream (users:queue:%s:events) 에 같이 기록됨
+ * - 다른 서비스는 사용자 별로 /allowed 를 polling 하는 대신 consumer group 으로 허용된 사용자를 묶어서 받음
+ * - stream 은 요청한 만큼만 읽으므로 (XREADGROUP COUNT), 소비하는 쪽이 느리면 읽기도 늦춰짐 (back-pressure)
+ * - 확인 (XACK) 하지 않은 이벤트는 pending 으로 남고, 소비를 시작할 때 XPENDING + XCLAIM 으로 먼저 다시 전달
+ *   (같은 consumer 가 받았던 이벤트는 바로, 다른 consumer 의 이벤트는 claimMinIdle 동안 확인되지 않은 경우에만 넘겨 받음)
+ * - shard 를 나눈 큐는 shard 별 stream 을 합쳐서 전달하며, 순서는 shard 안에서만 보장
+ * - queue.events.enabled=false 면 기록되지 않는 stream 을 만들거나 기다리지 않도록 소비 / 재생 요청을 바로 실패시킴
+ */
+@Component
+@ConditionalOnProperty(prefix = "queue", name = "store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueueEventStream {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2); // 새 이벤트가 없을 때 XREAD BLOCK 으로 기다리는 시간
+    private static final Duration MAX_BATCH_WAIT = Duration.ofMillis(100); // batchSize 만큼 모이지 않아도 전달하기까지 기다리는 시간
+    private static final Duration CLAIM_MIN_IDLE = Duration.ofSeconds(30); // 다른 consumer 가 처리 중인 이벤트를 뺏지 않도록, 이 시간 동안 확인되지 않은 이벤트만 넘겨 받음
+
+    private final ReactiveRedisConnectionFactory reactiveRedisConnectionFactory;
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final RedisQueueStore redisQueueStore;
+
+    // consumer group 으로 이벤트를 최대 batchSize 개씩 묶어서 소비 (group 이 없으면 stream 에 남아 있는 처음부터 읽도록 생성)
+    // 처리한 이벤트는 acknowledge 로 확인해야 하고, 확인하지 않은 이벤트는 다음에 소비를 시작할 때 새 이벤트보다 먼저 다시 전달됨
+    public Flux<List<QueueEvent>> consume(final String queue, final String group, final String consumer, final int batchSize) {
+        return consume(queue, group, consumer, batchSize, CLAIM_MIN_IDLE);
+    }
+
+    // claimMinIdle: 다른 consumer 의 pending 이벤트를 넘겨 받기까지 확인되지 않은 시간
+    public Flux<List<QueueEvent>> consume(final String queue, final String group, final String consumer, final int batchSize, final Duration claimMinIdle) {
+        if (!redisQueueStore.eventsEnabled()) {
+            return Flux.error(eventsDisabled());
+        }
+        var keys = redisQueueStore.eventStreamKeys(queue);
+        var receiver = receiver(batchSize);
+
+        return Flux.fromIterable(keys)
+            .concatMap(key -> createGroup(key, group))
+            .thenMany(Flux.concat(
+                Flux.range(0, keys.size())
+                    .concatMap(shard -> claimPending(queue, shard, keys.get(shard), group, consumer, batchSize, claimMinIdle)),
+                Flux.range(0, keys.size())
+                    .flatMap(shard -> receiver
+                        .receive(Consumer.from(group, consumer), StreamOffset.create(keys.get(shard), ReadOffset.lastConsumed()))
+                        .map(record -> toEvent(queue, shard, record)))
+            ))
+            .bufferTimeout(batchSize, MAX_BATCH_WAIT, true);
+    }
+
+    // shard stream 의 pending 이벤트를 batchSize 개씩 훑으면서 이 consumer 로 넘겨 받음 (XPENDING + XCLAIM)
+    private Flux<QueueEvent> claimPending(
+        final String queue,
+        final int shard,
+        final String key,
+        final String group,
+        final String consumer,
+        final int batchSize,
+        final Duration claimMinIdle
+    ) {
+        return pendingPage(key, group, Range.unbounded(), batchSize)
+            .expand(page -> page.size() < batchSize
+                ? Mono.empty()
+                : pendingPage(key, group, Range.rightUnbounded(Range.Bound.inclusive(nextId(page.get(page.size() - 1).getIdAsString()))), batchSize))
+            .concatMap(page -> Flux.concat(
+                claim(key, group, consumer, Duration.ZERO, page.stream() // 이 consumer 가 받았다가 확인하지 않은 이벤트
+                    .filter(message -> consumer.equals(message.getConsumerName()))
+                    .toList()),
+                claim(key, group, consumer, claimMinIdle, page.stream() // 다른 consumer 가 claimMinIdle 동안 확인하지 않은 이벤트
+                    .filter(message -> !consumer.equals(message.getConsumerName()))
+                    .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(claimMinIdle) >= 0)
+                    .toList())
+            ))
+            .map(record -> toEvent(queue, shard, record));
+    }
+
+    private Mono<List<PendingMessage>> pendingPage(final String key, final String group, final Range<String> range, final int count) {
+        return reactiveRedisTemplate.opsForStream().pending(key, group, range, count)
+            .map(messages -> {
+                List<PendingMessage> page = new ArrayList<>(count);
+                messages.forEach(page::add);
+                return page;
+            });
+    }
+
+    // XCLAIM 은 min idle 을 다시 확인하므로, 그 사이 다른 consumer 가 넘겨 받은 이벤트는 제외됨
+    private Flux<MapRecord<String, String, String>> claim(
+        final String key,
+        final String group,
+        final String consumer,
+        final Duration minIdle,
+        final List<PendingMessage> messages
+    ) {
+        if (messages.isEmpty()) {
+            return Flux.empty();
+        }
+        return reactiveRedisTemplate.<String, String>opsForStream()
+            .claim(key, group, consumer, minIdle, messages.stream().map(PendingMessage::getId).toArray(RecordId[]::new));
+    }
+
+    // 같은 ms 안의 다음 stream id (XPENDING 범위를 이어서 조회)
+    private static String nextId(final String id) {
+        var separator = id.indexOf('-');
+        return id.substring(0, separator + 1) + (Long.parseLong(id.substring(separator + 1)) + 1);
+    }
+
+    // 처리한 이벤트 확인 (XACK), 확인된 이벤트 수 리턴
+    public Mono<Long> acknowledge(final String queue, final String group, final List<QueueEvent> events) {
+        var keys = redisQueueStore.eventStreamKeys(queue);
+        return Flux.fromIterable(events.stream().collect(Collectors.groupingBy(QueueEvent::shard)).entrySet())
+            .flatMap(entry -> reactiveRedisTemplate.opsForStream().acknowledge(
+                keys.get(entry.getKey()),
+                group,
+                entry.getValue().stream().map(QueueEvent::id).toArray(String[]::new)
+            ))
+            .reduce(0L, Long::sum);
+    }
+
+    // consumer group 없이 fromId 이후의 이벤트를 순서대로 읽음 ("0": 남아 있는 처음부터, 이후 새 이벤트도 계속 전달)
+    public Flux<QueueEvent> replay(final String queue, final String fromId) {
+        if (!redisQueueStore.eventsEnabled()) {
+            return Flux.error(eventsDisabled());
+        }
+        var keys = redisQueueStore.eventStreamKeys(queue);
+        var receiver = receiver(100);
+
+        return Flux.range(0, keys.size())
+            .flatMap(shard -> receiver
+                .receive(StreamOffset.create(keys.get(shard), ReadOffset.from(fromId)))
+                .map(record -> toEvent(queue, shard, record)));
+    }
+
+    private static IllegalStateException eventsDisabled() {
+        return new IllegalStateException("queue events are disabled (queue.events.enabled=false)");
+    }
+
+    private StreamReceiver<String, MapRecord<String, String, String>> receiver(final int batchSize) {
+        return StreamReceiver.create(
+            reactiveRedisConnectionFactory,
+            StreamReceiver.StreamReceiverOptions.builder()
+                .batchSize(batchSize)
+                .pollTimeout(POLL_TIMEOUT)
+                .build()
+        );
+    }
+
+    // stream 이 없으면 같이 생성 (MKSTREAM), 이미 있는 group 은 그대로 사용
+    private Mono<Void> createGroup(final String key, final String group) {
+        return reactiveRedisTemplate.execute(connection -> connection.streamCommands()
+                .xGroupCreate(ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8)), group, ReadOffset.from("0"), true))
+            .onErrorResume(e -> isBusyGroup(e) ? Mono.empty() : Mono.error(e))
+            .then();
+    }
+
+    private static boolean isBusyGroup(final Throwable e) {
+        var message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.startsWith("BUSYGROUP");
+    }
+
+    private static QueueEvent toEvent(final String queue, final int shard, final MapRecord<String, String, String> record) {
+        return new QueueEvent(
+            queue,
+            shard,
+            record.getId().getValue(),
+            QueueEventType.of(record.getValue().get("type")),
+            Long.valueOf(record.getValue().get("userId"))
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.queuingsystemflow.event;
+
+import java.util.Arrays;
+
+/**
+ * 대기열 이벤트 종류 (stream 의 type 필드 값)
+ */
+public enum QueueEventType {
+    REGISTERED("registered"), // 대기 큐 등록
+    ADMITTED("admitted"), // 진입 허용 (대기 큐 -> 접속 허용 큐)
+    EXPIRED("expired"); // 접속 허용 유지 시간이 지나서 접속 허용 큐에서 제거
+
+    private final String value;
+
+    QueueEventType(final String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static QueueEventType of(final String value) {
+        return Arrays.stream(values())
+            .filter(type -> type.value.equals(value))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("unknown queue event type: " + value));
+    }
+}
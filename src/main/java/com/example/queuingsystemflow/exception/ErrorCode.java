@@ -5,7 +5,10 @@ import org.springframework.http.HttpStatus;
 
 @AllArgsConstructor
 public enum ErrorCode {
-    QUEUE_ALREADY_REGISTERED_USER(HttpStatus.CONFLICT, "UQ-0001", "이미 등록된 사용자입니다.");
+    QUEUE_ALREADY_REGISTERED_USER(HttpStatus.CONFLICT, "UQ-0001", "이미 등록된 사용자입니다."),
+    QUEUE_REGISTRATION_BUFFER_FULL(HttpStatus.TOO_MANY_REQUESTS, "UQ-0002", "%s 대기열 등록 요청이 많습니다. 잠시 후 다시 시도해 주세요."),
+    QUEUE_UNKNOWN_LANE(HttpStatus.BAD_REQUEST, "UQ-0003", "%s 는 없는 대기 레인입니다."),
+    QUEUE_LANE_FORBIDDEN(HttpStatus.FORBIDDEN, "UQ-0004", "%s 레인 등록은 내부 API 키가 필요합니다.");
 
     private final HttpStatus httpStatus;
     private final String code;
@@ -0,0 +1,123 @@
+package com.example.queuingsystemflow.metrics;
+
+import com.example.queuingsystemflow.service.QueueStats;
+import com.example.queuingsystemflow.service.UserQueueService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 큐 별 상태 지표 (/actuator/prometheus)
+ * - queue.wait.size / queue.proceed.size: 대기 큐 / 접속 허용 큐 크기
+ * - queue.admission.rate: 초당 허용 수 (누적 허용 수 변화량의 지수 이동 평균)
+ * - queue.wait.estimated: 예상 대기 시간 (초) = 대기 큐 크기 / 초당 허용 수
+ * - queue.admitted / queue.expired: 스케쥴마다 허용 / 만료된 사용자 수 (큐를 담당하는 노드에서만 증가)
+ * 상태 지표는 누적 허용 수를 redis 에 두기 때문에 큐를 담당하지 않는 노드에서도 같은 값을 계산할 수 있음
+ * queue tag 는 QueueTags 를 따르고, 대기자가 모두 빠져 이름으로 tag 하지 않게 된 큐의 지표 (상태 / 카운터 / 지연 시간) 는 모두 제거
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QueueMetrics {
+
+    private static final double RATE_SMOOTHING = 0.3; // 지수 이동 평균 가중치
+
+    private final UserQueueService userQueueService;
+    private final QueueTags queueTags;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, QueueGauges> gauges = new ConcurrentHashMap<>();
+
+    public void admitted(final String queue, final long count) {
+        Counter.builder("queue.admitted").tag("queue", queueTags.of(queue)).register(meterRegistry).increment(count);
+    }
+
+    public void expired(final String queue, final long count) {
+        Counter.builder("queue.expired").tag("queue", queueTags.of(queue)).register(meterRegistry).increment(count);
+    }
+
+    @Scheduled(initialDelay = 5000, fixedDelay = 3000) // 서버 시작 후 5초 이후부터 3초 주기로 큐 상태 지표 갱신
+    public void refreshQueueStats() {
+        userQueueService.getActiveQueues()
+            .collect(Collectors.toSet())
+            .map(queueTags::updateActiveQueues) // 최대 수를 넘은 큐는 상태 지표를 남기지 않음
+            .doOnNext(this::removeInactiveQueues)
+            .flatMapMany(Flux::fromIterable)
+            .flatMap(queue -> userQueueService.getQueueStats(queue)
+                .doOnNext(stats -> gauges.computeIfAbsent(queue, this::register).update(stats, System.nanoTime())))
+            .doOnError(e -> log.warn("failed to refresh queue stats", e))
+            .subscribe();
+    }
+
+    // 대기자가 모두 빠진 큐의 상태 지표와, 더 이상 이름으로 tag 하지 않는 큐의 모든 지표 제거
+    private void removeInactiveQueues(final Set<String> activeQueues) {
+        gauges.keySet().removeIf(queue -> {
+            if (activeQueues.contains(queue)) {
+                return false;
+            }
+            gauges.get(queue).meters().forEach(meterRegistry::remove);
+            return true;
+        });
+        meterRegistry.getMeters().stream()
+            .filter(meter -> {
+                var queue = meter.getId().getTag("queue");
+                return queue != null && !QueueTags.OTHER.equals(queue) && !queueTags.isTagged(queue);
+            })
+            .forEach(meterRegistry::remove);
+    }
+
+    private QueueGauges register(final String queue) {
+        var state = new QueueState();
+        var meters = List.<Meter>of(
+            Gauge.builder("queue.wait.size", state, s -> s.waitSize).tag("queue", queue).register(meterRegistry),
+            Gauge.builder("queue.proceed.size", state, s -> s.proceedSize).tag("queue", queue).register(meterRegistry),
+            Gauge.builder("queue.admission.rate", state, s -> s.admissionRate).tag("queue", queue).baseUnit("users/s").register(meterRegistry),
+            Gauge.builder("queue.wait.estimated", state, QueueState::estimatedWaitSeconds).tag("queue", queue).baseUnit("seconds").register(meterRegistry)
+        );
+        return new QueueGauges(state, meters);
+    }
+
+    private record QueueGauges(QueueState state, List<Meter> meters) {
+        private void update(final QueueStats stats, final long nowNanos) {
+            state.update(stats, nowNanos);
+        }
+    }
+
+    private static final class QueueState {
+        private volatile double waitSize;
+        private volatile double proceedSize;
+        private volatile double admissionRate;
+        private long lastAdmittedCount = -1;
+        private long lastUpdatedNanos;
+
+        private synchronized void update(final QueueStats stats, final long nowNanos) {
+            waitSize = stats.waitSize();
+            proceedSize = stats.proceedSize();
+
+            if (lastAdmittedCount >= 0 && nowNanos > lastUpdatedNanos) {
+                var rate = Math.max(stats.admittedCount() - lastAdmittedCount, 0) / ((nowNanos - lastUpdatedNanos) / 1_000_000_000.0);
+                admissionRate = RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * admissionRate;
+            }
+            lastAdmittedCount = stats.admittedCount();
+            lastUpdatedNanos = nowNanos;
+        }
+
+        // 허용이 멈춘 큐는 예상 대기 시간을 알 수 없음 (NaN)
+        private double estimatedWaitSeconds() {
+            var rate = admissionRate;
+            return rate > 0 ? waitSize / rate : Double.NaN;
+        }
+    }
+}
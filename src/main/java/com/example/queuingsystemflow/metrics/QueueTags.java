@@ -0,0 +1,64 @@
+package com.example.queuingsystemflow.metrics;
+
+import com.example.queuingsystemflow.admission.AdmissionProperties;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 지표의 queue tag 값
+ * - queue 이름은 클라이언트가 정하므로, 이름마다 지표 (histogram 포함) 가 생기지 않도록 설정된 큐와 대기자가 있는 큐만 이름으로 tag
+ * - 대기자가 있는 큐 목록은 QueueMetrics 가 주기마다 갱신 (새 큐는 다음 갱신 전까지 other), 최대 queue.metrics.max-active-queues 개
+ */
+@Component
+public class QueueTags {
+
+    public static final String OTHER = "other"; // 이름으로 tag 하지 않는 큐
+
+    private final Set<String> configuredQueues = new HashSet<>(); // admission.queues, queue.shards 에 설정된 큐와 기본 큐
+    private final int maxActiveQueues;
+
+    private volatile Set<String> activeQueues = Set.of();
+
+    public QueueTags(final UserQueueProperties userQueueProperties, final AdmissionProperties admissionProperties) {
+        configuredQueues.add("default");
+        configuredQueues.addAll(admissionProperties.queues().keySet());
+        configuredQueues.addAll(userQueueProperties.shards().keySet());
+        maxActiveQueues = userQueueProperties.metrics().maxActiveQueues();
+    }
+
+    public String of(final String queue) {
+        return isTagged(queue) ? queue : OTHER;
+    }
+
+    public boolean isTagged(final String queue) {
+        return configuredQueues.contains(queue) || activeQueues.contains(queue);
+    }
+
+    // 대기자가 있는 큐 목록 갱신, 이름으로 tag 하는 대기자가 있는 큐 리턴
+    // 최대 수를 넘으면 이미 tag 하던 큐를 유지하고 새 큐는 이름 순으로 채움 (같은 큐의 tag 가 주기마다 바뀌지 않도록)
+    Set<String> updateActiveQueues(final Set<String> queues) {
+        var previous = activeQueues;
+        var candidates = Stream.concat(
+                queues.stream().filter(previous::contains),
+                queues.stream().filter(queue -> !previous.contains(queue)).sorted()
+            )
+            .toList();
+
+        Set<String> tagged = new HashSet<>();
+        var unconfigured = 0;
+        for (var queue : candidates) {
+            if (configuredQueues.contains(queue)) {
+                tagged.add(queue);
+            } else if (unconfigured < maxActiveQueues) {
+                tagged.add(queue);
+                unconfigured++;
+            }
+        }
+        activeQueues = Set.copyOf(tagged);
+        return activeQueues;
+    }
+}
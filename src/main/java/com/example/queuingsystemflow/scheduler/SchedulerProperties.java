@@ -0,0 +1,30 @@
+package com.example.queuingsystemflow.scheduler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 진입 허용 스케쥴러 설정 (application.yaml 의 scheduler.*)
+ * - nodeId: 노드 식별자, 지정하지 않으면 기동할 때마다 랜덤 생성
+ * - leaseTtl: 노드 heartbeat / 큐 lease 유효 시간, 노드가 죽으면 이 시간 이후 다른 노드가 큐를 넘겨 받음
+ * - concurrency: 스케쥴 한 번에 동시에 진입 허용을 수행할 최대 큐 수
+ */
+@ConfigurationProperties(prefix = "scheduler")
+public record SchedulerProperties(
+    @DefaultValue("true") Boolean enabled,
+    String nodeId,
+    @DefaultValue("10s") Duration leaseTtl,
+    @DefaultValue("16") int concurrency
+) {
+    public SchedulerProperties {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("scheduler.concurrency must be positive");
+        }
+    }
+}
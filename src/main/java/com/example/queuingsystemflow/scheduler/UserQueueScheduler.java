@@ -0,0 +1,219 @@
+package com.example.queuingsystemflow.scheduler;
+
+import com.example.queuingsystemflow.admission.AdmissionRateLimiter;
+import com.example.queuingsystemflow.metrics.QueueMetrics;
+import com.example.queuingsystemflow.service.UserQueueService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 서버(노드)가 떠 있어도 큐마다 정확히 하나의 노드만 진입 허용을 수행하도록 조율하는 스케쥴러
+ * - 각 노드는 주기마다 redis 에 heartbeat 를 남기고, 살아있는 노드 목록을 기준으로 rendezvous hashing 을 통해 담당 큐를 나눠 가짐
+ * - 담당 큐는 redis lease (SET NX PX) 를 획득한 경우에만 진입을 허용하므로, 노드 간 목록이 잠시 어긋나더라도 중복 허용되지 않음
+ * - 노드가 죽으면 heartbeat / lease 가 leaseTtl 이후 만료되고, 남은 노드가 해당 큐를 넘겨 받음
+ * - 큐는 최대 concurrency 개씩 동시에 처리하고, 이전 스케쥴이 끝나지 않았다면 다음 스케쥴은 건너뜀 (최대 leaseTtl 까지만 기다림)
+ * - 대기자가 모두 빠진 큐도 접속 허용 사용자가 남아 있으면 담당 노드가 만료 처리를 계속함
+ * - queue.store=memory 면 서버마다 대기열이 따로 있으므로 heartbeat / lease 없이 자신의 모든 큐를 처리
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserQueueScheduler {
+
+    private static final String SCHEDULER_NODES_KEY = "users:scheduler:nodes"; // 살아있는 스케쥴러 노드 (score: heartbeat 시각)
+    private static final String USER_QUEUE_LEASE_KEY = "users:queue:%s:lease"; // 큐를 담당하는 노드
+
+    private static final RedisScript<List> HEARTBEAT_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/scheduler-heartbeat.lua"), List.class);
+    private static final RedisScript<Long> ACQUIRE_LEASE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/acquire-lease.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/release-lease.lua"), Long.class);
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final UserQueueService userQueueService;
+    private final SchedulerProperties schedulerProperties;
+    private final AdmissionRateLimiter admissionRateLimiter;
+    private final QueueMetrics queueMetrics;
+
+    private final Set<String> leasedQueues = ConcurrentHashMap.newKeySet(); // 이 노드가 lease 를 보유한 큐
+    private final AtomicBoolean running = new AtomicBoolean(); // 진행 중인 스케쥴이 있는지
+
+    @Scheduled(initialDelay = 5000, fixedDelay = 3000) // 서버 시작 후 5초 이후부터 스케쥴 동작, 3초 주기로 아래 메소드 실행
+    public void scheduleAllowUser() {
+        if (!schedulerProperties.enabled()) {
+            log.debug("passed scheduling ...");
+            return ;
+        }
+
+        if (!running.compareAndSet(false, true)) { // 느린 스케쥴 위에 다음 스케쥴이 겹쳐서 쌓이지 않도록 함
+            log.debug("skipped scheduling, previous scheduling is still running ...");
+            return ;
+        }
+
+        log.debug("called scheduling ...");
+
+        allowUserOfOwnedQueues()
+            .doOnNext(tuple -> log.debug("Allowed {} members of {} queue", tuple.getT2(), tuple.getT1()))
+            .timeout(schedulerProperties.leaseTtl()) // lease 가 만료된 뒤에는 다른 노드가 넘겨 받으므로 더 기다리지 않음
+            .doOnError(e -> log.warn("failed to schedule allow user", e))
+            .doFinally(signal -> running.set(false))
+            .subscribe();
+    }
+
+    // 이 노드가 담당하는 큐에 대해서만 사용자를 허용하고, (queue, 허용된 사용자 수)를 리턴
+    public Flux<Tuple2<String, Long>> allowUserOfOwnedQueues() {
+        var nodes = userQueueService.isSharedStore() ? heartbeat() : Mono.just(List.of(schedulerProperties.nodeId()));
+        return nodes
+            .zipWith(userQueueService.getActiveQueues().collect(Collectors.toSet()))
+            .flatMapMany(tuple -> Flux.merge(
+                Flux.fromIterable(tuple.getT2())
+                    .flatMap(queue -> whenOwned(queue, tuple.getT1(), allowUser(queue))
+                        .map(allowed -> Tuples.of(queue, allowed)),
+                        schedulerProperties.concurrency() // 동시에 처리할 최대 큐 수 (redis 연결 / 스케쥴 스레드 점유 제한)
+                    ),
+                drainedQueues(tuple.getT2())
+                    .flatMap(queue -> whenOwned(queue, tuple.getT1(), expire(queue)).then(Mono.<Tuple2<String, Long>>empty()),
+                        schedulerProperties.concurrency()
+                    )
+            ));
+    }
+
+    // 대기자는 모두 빠졌지만 접속 허용 사용자가 남아 있을 수 있는 큐
+    private Flux<String> drainedQueues(final Set<String> activeQueues) {
+        return userQueueService.getProceedQueues()
+            .filter(queue -> !activeQueues.contains(queue));
+    }
+
+    // 담당 큐면 lease 를 획득한 경우에만 실행하고, 담당이 아닌 큐는 보유한 lease 반납 (queue.store=memory 면 항상 실행)
+    private <T> Mono<T> whenOwned(final String queue, final List<String> nodes, final Mono<T> action) {
+        if (!userQueueService.isSharedStore()) {
+            return action;
+        }
+        if (!schedulerProperties.nodeId().equals(ownerOf(queue, nodes))) {
+            return releaseLease(queue).then(Mono.empty());
+        }
+        return acquireLease(queue)
+            .filter(acquired -> acquired)
+            .flatMap(acquired -> action);
+    }
+
+    // 만료된 사용자를 먼저 정리해서 비워진 자리를 포함해 큐 별 정책에 따라 계산된 수 만큼 허용
+    private Mono<Long> allowUser(final String queue) {
+        return expire(queue)
+            .then(admissionRateLimiter.nextBatchSize(queue))
+            .flatMap(batchSize -> batchSize > 0 ? userQueueService.allowUser(queue, batchSize) : Mono.just(0L))
+            .doOnNext(allowed -> {
+                admissionRateLimiter.onAdmitted(queue, allowed);
+                queueMetrics.admitted(queue, allowed);
+            });
+    }
+
+    private Mono<Long> expire(final String queue) {
+        return userQueueService.expireProceedUsers(queue)
+            .doOnNext(expired -> queueMetrics.expired(queue, expired));
+    }
+
+    // 노드 종료 시 heartbeat 와 보유한 lease 를 바로 반납해서, 다른 노드가 leaseTtl 을 기다리지 않고 넘겨 받도록 함
+    @PreDestroy
+    public void leave() {
+        if (!schedulerProperties.enabled() || !userQueueService.isSharedStore()) {
+            return ;
+        }
+
+        reactiveRedisTemplate.opsForZSet().remove(SCHEDULER_NODES_KEY, schedulerProperties.nodeId())
+            .thenMany(Flux.fromIterable(List.copyOf(leasedQueues)).flatMap(this::releaseLease))
+            .then()
+            .timeout(Duration.ofSeconds(1))
+            .onErrorResume(e -> Mono.empty()) // 반납에 실패해도 leaseTtl 이후 자연스럽게 만료됨
+            .block();
+    }
+
+    private Mono<List<String>> heartbeat() {
+        return reactiveRedisTemplate.execute(
+                HEARTBEAT_SCRIPT,
+                List.of(SCHEDULER_NODES_KEY),
+                List.of(schedulerProperties.nodeId(), String.valueOf(schedulerProperties.leaseTtl().toMillis()))
+            )
+            .next()
+            .map(nodes -> ((List<?>) nodes).stream().map(Object::toString).toList());
+    }
+
+    private Mono<Boolean> acquireLease(final String queue) {
+        return reactiveRedisTemplate.execute(
+                ACQUIRE_LEASE_SCRIPT,
+                List.of(USER_QUEUE_LEASE_KEY.formatted(queue)),
+                List.of(schedulerProperties.nodeId(), String.valueOf(schedulerProperties.leaseTtl().toMillis()))
+            )
+            .next()
+            .map(acquired -> acquired == 1L)
+            .doOnNext(acquired -> {
+                if (acquired) {
+                    leasedQueues.add(queue);
+                } else {
+                    leasedQueues.remove(queue);
+                }
+            });
+    }
+
+    // 담당이 바뀐 큐의 lease 만 반납 (보유하지 않은 큐는 redis 호출 없음)
+    private Mono<Void> releaseLease(final String queue) {
+        if (!leasedQueues.remove(queue)) {
+            return Mono.empty();
+        }
+
+        return reactiveRedisTemplate.execute(
+                RELEASE_LEASE_SCRIPT,
+                List.of(USER_QUEUE_LEASE_KEY.formatted(queue)),
+                List.of(schedulerProperties.nodeId())
+            )
+            .then();
+    }
+
+    // rendezvous (highest random weight) hashing: 노드가 추가/제거되어도 해당 노드의 큐만 재배치됨
+    static String ownerOf(final String queue, final List<String> nodes) {
+        String owner = null;
+        long maxWeight = Long.MIN_VALUE;
+        for (String node : nodes) {
+            long weight = hash(node + ":" + queue);
+            if (owner == null || weight > maxWeight || (weight == maxWeight && node.compareTo(owner) < 0)) {
+                owner = node;
+                maxWeight = weight;
+            }
+        }
+        return owner;
+    }
+
+    // FNV-1a 64bit + murmur3 finalizer
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+/**
+ * 최근 접속 허용이 확인된 사용자 로컬 캐시
+ * - 허용된 사용자의 반복되는 /waiting-room, /allowed 요청이 redis 를 거치지 않도록 허용된 경우만 저장
+ * - 다른 노드에서 만료 처리되더라도 최대 ttl 동안은 허용 상태로 남을 수 있으므로, ttl 은 sessionWindow 보다 충분히 짧게 설정
+ */
+@Component
+public class AdmittedUserCache {
+
+    private final Cache<String, Boolean> admittedUsers;
+
+    public AdmittedUserCache(final UserQueueProperties userQueueProperties) {
+        var properties = userQueueProperties.admittedCache();
+        this.admittedUsers = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .expireAfterWrite(properties.ttl())
+            .build();
+    }
+
+    public boolean isAdmitted(final String queue, final Long userId) {
+        return admittedUsers.getIfPresent(key(queue, userId)) != null;
+    }
+
+    public void admitted(final String queue, final Long userId) {
+        admittedUsers.put(key(queue, userId), Boolean.TRUE);
+    }
+
+    public void invalidateAll() {
+        admittedUsers.invalidateAll();
+    }
+
+    private static String key(final String queue, final Long userId) {
+        return queue + ":" + userId;
+    }
+}
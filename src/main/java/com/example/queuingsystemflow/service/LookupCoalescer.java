@@ -0,0 +1,61 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 같은 (queue, userId) 에 대한 동시 조회를 하나의 redis 호출로 합치는 single-flight 캐시
+ * - 새로고침, 여러 탭, polling 이 겹쳐도 조회 중인 Mono 를 공유하고, 결과는 ttl 동안 재사용
+ * - 실패는 공유하지 않으므로 다음 요청이 다시 조회
+ * - 등록 / 허용처럼 결과가 바뀌는 작업은 invalidate 로 바로 제거 (다른 사용자의 허용으로 바뀐 순번은 최대 ttl 만큼 늦게 반영)
+ */
+@Component
+public class LookupCoalescer {
+
+    static final String RANK = "rank";
+    static final String ALLOWED = "allowed";
+
+    private final Cache<String, Mono<?>> lookups;
+    private final Duration ttl;
+
+    @Autowired
+    public LookupCoalescer(final UserQueueProperties userQueueProperties) {
+        this(userQueueProperties.coalescing().ttl(), userQueueProperties.coalescing().maxSize());
+    }
+
+    LookupCoalescer(final Duration ttl, final long maxSize) {
+        this.ttl = ttl;
+        this.lookups = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl.plusSeconds(1)) // 결과 재사용 시간이 지난 항목은 메모리에서도 제거
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> share(final String lookup, final String queue, final Long userId, final Supplier<Mono<T>> source) {
+        return (Mono<T>) lookups.get(
+            key(lookup, queue, userId),
+            key -> source.get().cache(value -> ttl, e -> Duration.ZERO, () -> Duration.ZERO)
+        );
+    }
+
+    public void invalidate(final String queue, final Long userId) {
+        lookups.invalidate(key(RANK, queue, userId));
+        lookups.invalidate(key(ALLOWED, queue, userId));
+    }
+
+    public void invalidateAll() {
+        lookups.invalidateAll();
+    }
+
+    private static String key(final String lookup, final String queue, final Long userId) {
+        return lookup + ":" + queue + ":" + userId;
+    }
+}
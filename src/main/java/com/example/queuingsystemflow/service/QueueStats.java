@@ -0,0 +1,8 @@
+package com.example.queuingsystemflow.service;
+
+public record QueueStats(
+    long waitSize,
+    long proceedSize,
+    long admittedCount
+) {
+}
@@ -0,0 +1,64 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 근사 대기 순번(queue.rank.mode=approximate) 계산용 로컬 캐시
+ * - 사용자 별 등록 순번: 등록 후 바뀌지 않으므로 한 번 조회하면 계속 사용
+ * - 큐 별 누적 허용 수: 스케쥴 주기마다만 바뀌므로 snapshotTtl 동안 하나의 GET 결과를 모든 요청이 공유
+ * 대기 순번 = 등록 순번 - 누적 허용 수 (snapshot 이 최대 snapshotTtl 만큼 늦으므로 실제보다 클 수 있음)
+ */
+@Component
+public class RankSnapshotCache {
+
+    private final Cache<String, Long> sequences; // queue:userId -> 등록 순번
+    private final Cache<String, Mono<Long>> admittedCounts; // queue -> 누적 허용 수 snapshot
+    private final Duration snapshotTtl;
+
+    public RankSnapshotCache(final UserQueueProperties userQueueProperties) {
+        var properties = userQueueProperties.rank();
+        this.sequences = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .build();
+        this.admittedCounts = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(1)) // 조회가 없는 큐의 snapshot 은 제거
+            .build();
+        this.snapshotTtl = properties.snapshotTtl();
+    }
+
+    // 캐시에 없을 때만 loader 로 조회 (대기 큐에 없으면 저장하지 않음)
+    public Mono<Long> sequenceOf(final String queue, final Long userId, final Supplier<Mono<Long>> loader) {
+        var key = key(queue, userId);
+        var sequence = sequences.getIfPresent(key);
+        if (sequence != null) {
+            return Mono.just(sequence);
+        }
+        return loader.get().doOnNext(loaded -> sequences.put(key, loaded));
+    }
+
+    // snapshotTtl 동안 같은 결과를 공유하고, 조회 중인 요청이 있으면 새로 조회하지 않고 그 결과를 기다림 (실패는 공유하지 않음)
+    public Mono<Long> admittedCountOf(final String queue, final Supplier<Mono<Long>> loader) {
+        return admittedCounts.get(queue, key -> loader.get().cache(count -> snapshotTtl, e -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    // 재등록 등으로 등록 순번이 바뀔 수 있는 사용자
+    public void invalidate(final String queue, final Long userId) {
+        sequences.invalidate(key(queue, userId));
+    }
+
+    public void invalidateAll() {
+        sequences.invalidateAll();
+        admittedCounts.invalidateAll();
+    }
+
+    private static String key(final String queue, final Long userId) {
+        return queue + ":" + userId;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.store.QueueStore;
+import com.example.queuingsystemflow.store.Registration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.queuingsystemflow.exception.ErrorCode.QUEUE_REGISTRATION_BUFFER_FULL;
+
+/**
+ * 대기열 등록 write-behind 버퍼 (queue.registration-buffer.enabled=true 일 때 사용)
+ * - 등록 요청을 큐 / 레인 별 lock-free 버퍼에 모았다가 flushInterval 마다 또는 batchSize 개가 모이면 한 번의 스크립트 호출로 등록
+ * - 큐 / 레인 별로 한 번에 하나의 batch 만 실행하므로 버퍼에 들어온 순서대로 등록되고, 각 요청은 자신이 속한 batch 가 끝나면 대기 순번을 받음
+ * - 버퍼가 maxSize 만큼 차면 redis 로 보내지 않고 바로 QUEUE_REGISTRATION_BUFFER_FULL 로 거절
+ * - 큐 이름은 클라이언트가 정하므로, idleTimeout (30초) 동안 요청이 없는 빈 버퍼는 제거
+ */
+@Slf4j
+@Component
+public class RegistrationBuffer {
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(30); // 요청이 없는 빈 버퍼를 제거하기까지의 시간
+    private static final int CLOSED = Integer.MIN_VALUE / 2; // 제거된 버퍼의 size (이후 요청이 와도 음수로 남음)
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final long idleTimeoutNanos;
+    private final Writer writer;
+
+    private final Map<String, QueueBuffer> buffers = new ConcurrentHashMap<>();
+    private Disposable ticker;
+
+    @Autowired
+    public RegistrationBuffer(final UserQueueProperties userQueueProperties, final QueueStore queueStore) {
+        this(
+            userQueueProperties.registrationBuffer().enabled(),
+            userQueueProperties.registrationBuffer().maxSize(),
+            userQueueProperties.registrationBuffer().batchSize(),
+            userQueueProperties.registrationBuffer().flushInterval(),
+            IDLE_TIMEOUT,
+            queueStore::register
+        );
+    }
+
+    RegistrationBuffer(
+        final boolean enabled,
+        final int maxSize,
+        final int batchSize,
+        final Duration flushInterval,
+        final Duration idleTimeout,
+        final Writer writer
+    ) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.writer = writer;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return ;
+        }
+
+        ticker = Flux.interval(flushInterval)
+            .onBackpressureDrop()
+            .subscribe(tick -> {
+                var now = System.nanoTime();
+                buffers.forEach((key, buffer) -> {
+                    buffer.flush();
+                    if (buffer.closeIfIdle(now)) {
+                        buffers.remove(key, buffer);
+                    }
+                });
+            });
+    }
+
+    // 남은 요청은 redis 연결이 닫히기 전에 한 번 더 보냄
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        buffers.values().forEach(QueueBuffer::flush);
+    }
+
+    // 요청을 받고 있는 큐 / 레인 버퍼 수
+    int bufferCount() {
+        return buffers.size();
+    }
+
+    // 다른 요청과 모아서 등록하고, 사용자의 등록 결과 리턴
+    public Mono<Registration> submit(final String queue, final String lane, final Long userId) {
+        var key = queue + ":" + lane;
+        return Mono.create(sink -> {
+            QueueBuffer buffer;
+            while (!(buffer = buffers.computeIfAbsent(key, k -> new QueueBuffer(queue, lane))).offer(userId, sink)) {
+                buffers.remove(key, buffer); // 제거 중인 버퍼면 새 버퍼에 넣음
+            }
+        });
+    }
+
+    // 큐 / 레인에 요청 순서대로 등록하고, 사용자 별 등록 결과를 같은 순서로 리턴
+    @FunctionalInterface
+    interface Writer {
+        Mono<List<Registration>> write(String queue, String lane, List<Long> userIds);
+    }
+
+    private final class QueueBuffer {
+        private final String queue;
+        private final String lane;
+        private final ConcurrentLinkedQueue<PendingRegistration> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger(); // ConcurrentLinkedQueue.size() 는 O(n) 이므로 따로 관리, 제거되면 CLOSED
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private volatile long lastOfferedNanos = System.nanoTime();
+
+        private QueueBuffer(final String queue, final String lane) {
+            this.queue = queue;
+            this.lane = lane;
+        }
+
+        // 제거된 버퍼라면 false
+        private boolean offer(final Long userId, final MonoSink<Registration> sink) {
+            var current = size.incrementAndGet();
+            if (current <= 0) {
+                return false;
+            }
+            if (current > maxSize) {
+                size.decrementAndGet();
+                sink.error(QUEUE_REGISTRATION_BUFFER_FULL.build(queue));
+                return true;
+            }
+
+            lastOfferedNanos = System.nanoTime();
+            pending.offer(new PendingRegistration(userId, sink));
+            if (current >= batchSize) { // 다음 주기를 기다리지 않고 바로 보냄
+                flush();
+            }
+            return true;
+        }
+
+        // 비어 있고 idleTimeout 동안 요청이 없었다면 이후 요청을 받지 않도록 닫음
+        private boolean closeIfIdle(final long nowNanos) {
+            return !flushing.get()
+                && nowNanos - lastOfferedNanos > idleTimeoutNanos
+                && size.compareAndSet(0, CLOSED);
+        }
+
+        private void flush() {
+            if (!flushing.compareAndSet(false, true)) { // 실행 중인 batch 가 끝나면 이어서 보냄
+                return ;
+            }
+
+            List<PendingRegistration> batch = new ArrayList<>(Math.min(batchSize, Math.max(size.get(), 0)));
+            PendingRegistration registration;
+            while (batch.size() < batchSize && (registration = pending.poll()) != null) {
+                batch.add(registration);
+            }
+            if (batch.isEmpty()) {
+                flushing.set(false);
+                return ;
+            }
+            size.addAndGet(-batch.size());
+
+            var userIds = batch.stream().map(PendingRegistration::userId).toList();
+            Mono.defer(() -> writer.write(queue, lane, userIds)) // writer 가 바로 예외를 던져도 batch 를 실패 처리하고 다음 batch 진행
+                .filter(results -> results.size() == batch.size())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("expected %d registration results".formatted(batch.size()))))
+                .subscribe(
+                    results -> {
+                        for (int i = 0; i < batch.size(); i++) {
+                            batch.get(i).sink().success(results.get(i));
+                        }
+                    },
+                    e -> {
+                        log.warn("failed to flush {} registrations of {} queue", batch.size(), queue, e);
+                        batch.forEach(pendingRegistration -> pendingRegistration.sink().error(e));
+                        next();
+                    },
+                    this::next
+                );
+        }
+
+        // batch 가 끝나면 그 사이 batchSize 이상 쌓인 요청을 이어서 보냄 (남은 요청은 다음 주기에 보냄)
+        private void next() {
+            flushing.set(false);
+            if (size.get() >= batchSize) {
+                flush();
+            }
+        }
+    }
+
+    private record PendingRegistration(Long userId, MonoSink<Registration> sink) {
+    }
+}
@@ -1,125 +1,256 @@
 package com.example.queuingsystemflow.service;
 
+import com.example.queuingsystemflow.config.RankMode;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.dto.BulkRegisterUserResponse;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import com.example.queuingsystemflow.dto.UserRankResponse;
+import com.example.queuingsystemflow.metrics.QueueTags;
+import com.example.queuingsystemflow.store.QueueStore;
+import com.example.queuingsystemflow.store.Registration;
+import com.example.queuingsystemflow.token.TokenEngine;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuples;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import static com.example.queuingsystemflow.config.UserQueueProperties.GENERAL_LANE;
 import static com.example.queuingsystemflow.exception.ErrorCode.QUEUE_ALREADY_REGISTERED_USER;
+import static com.example.queuingsystemflow.exception.ErrorCode.QUEUE_UNKNOWN_LANE;
 
 @Service
-@Slf4j
 @RequiredArgsConstructor
 public class UserQueueService {
-    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final QueueStore queueStore; // 대기열 저장소 (queue.store: redis, memory)
+    private final UserQueueProperties userQueueProperties;
+    private final TokenEngine tokenEngine;
+    private final AdmittedUserCache admittedUserCache;
+    private final MeterRegistry meterRegistry;
+    private final RankSnapshotCache rankSnapshotCache;
+    private final LookupCoalescer lookupCoalescer;
+    private final RegistrationBuffer registrationBuffer;
+    private final QueueTags queueTags;
 
-    private final String USER_QUEUE_WAIT_KEY = "users:queue:%s:wait"; // 사용자 대기 큐
-    private final String USER_QUEUE_WAIT_KEY_FOR_SCAN = "users:queue:*:wait"; // 사용자 대기 큐 스캔
-    private final String USER_QUEUE_PROCEED_KEY = "users:queue:%s:proceed"; // 사용자 접속 허용 큐
-
-    @Value("${scheduler.enabled}") // application.yaml의 scheduler.enabled 값을 가져오도록 설정
-    private Boolean scheduling = false;
+    private static final int BULK_CHUNK_SIZE = 500; // 일괄 처리 시 저장소에 한 번에 보낼 최대 사용자 수
 
     // 대기열 등록 API
     public Mono<Long> registerWaitQueue(final String queue, final Long userId) {
-        /**
-         * redis sortedset에 저장
-         * - key: userId
-         * - value: unix timestamp
-         * - rank: 몇 번째 대기 순서인지
-         */
-        var unixTimestamp = Instant.now().getEpochSecond();
-        return reactiveRedisTemplate.opsForZSet().add(USER_QUEUE_WAIT_KEY.formatted(queue), userId.toString(), unixTimestamp)
-            .filter(i -> i)
+        return registerWaitQueue(queue, GENERAL_LANE, userId);
+    }
+
+    // 대기열의 레인에 등록 (대기 순번은 레인 안에서의 순번)
+    public Mono<Long> registerWaitQueue(final String queue, final String lane, final Long userId) {
+        return register(queue, lane, userId)
+            .filter(Registration::registered)
             .switchIfEmpty(Mono.error(QUEUE_ALREADY_REGISTERED_USER.build()))
-            .flatMap(i -> reactiveRedisTemplate.opsForZSet().rank(USER_QUEUE_WAIT_KEY.formatted(queue), userId.toString()))
-            .map(i -> i >= 0 ? i+1: i)
-            ;
+            .map(Registration::rank)
+            .transform(mono -> metered(mono, "queue.register", queue));
+    }
+
+    // 대기열 등록 후 대기 순번 조회 (이미 등록된 사용자라면 에러 대신 기존 대기 순번 리턴)
+    public Mono<Long> registerWaitQueueOrGetRank(final String queue, final Long userId) {
+        return registerWaitQueueOrGetRank(queue, GENERAL_LANE, userId);
+    }
+
+    public Mono<Long> registerWaitQueueOrGetRank(final String queue, final String lane, final Long userId) {
+        return register(queue, lane, userId)
+            .map(Registration::rank)
+            .transform(mono -> metered(mono, "queue.register", queue));
+    }
+
+    // 등록 버퍼를 사용하면 다른 요청과 모아서 한 번에 등록
+    private Mono<Registration> register(final String queue, final String lane, final Long userId) {
+        if (!registrationBuffer.isEnabled()) {
+            return register(queue, lane, List.of(userId))
+                .next();
+        }
+        if (!userQueueProperties.lanes().containsKey(lane)) { // 없는 레인의 버퍼를 만들지 않도록 버퍼에 넣기 전에 확인
+            return Mono.error(QUEUE_UNKNOWN_LANE.build(lane));
+        }
+
+        return registrationBuffer.submit(queue, lane, userId)
+            .doOnNext(result -> invalidate(queue, userId));
+    }
+
+    // 요청 순서대로 등록하고, 사용자 별 (신규 등록 여부, 대기 순번) 리턴
+    private Flux<Registration> register(final String queue, final String lane, final List<Long> userIds) {
+        if (!userQueueProperties.lanes().containsKey(lane)) {
+            return Flux.error(QUEUE_UNKNOWN_LANE.build(lane));
+        }
+
+        return queueStore.register(queue, lane, userIds)
+            .doOnNext(results -> userIds.forEach(userId -> invalidate(queue, userId)))
+            .flatMapIterable(results -> results);
+    }
+
+    // 등록으로 바뀐 사용자의 대기 순번 캐시 제거
+    private void invalidate(final String queue, final Long userId) {
+        rankSnapshotCache.invalidate(queue, userId);
+        lookupCoalescer.invalidate(queue, userId);
+    }
+
+    // 대기열 일괄 등록 (요청 순서대로 BULK_CHUNK_SIZE 명씩 묶어서 등록, 이미 등록된 사용자는 기존 대기 순번 리턴)
+    public Flux<BulkRegisterUserResponse> registerWaitQueueBulk(final String queue, final Flux<Long> userIds) {
+        return registerWaitQueueBulk(queue, GENERAL_LANE, userIds);
+    }
 
+    public Flux<BulkRegisterUserResponse> registerWaitQueueBulk(final String queue, final String lane, final Flux<Long> userIds) {
+        return userIds
+            .buffer(BULK_CHUNK_SIZE)
+            .concatMap(chunk -> register(queue, lane, chunk))
+            .map(result -> new BulkRegisterUserResponse(result.userId(), result.rank(), result.registered()));
     }
 
     // 진입을 허용하는 메소드
     public Mono<Long> allowUser(final String queue, final Long count) {
-        // 진입을 허용하는 단계
-        // 1. wait queue에서 사용자를 제거
-        // 2. proceed queue에 사용자를 추가
-        return reactiveRedisTemplate.opsForZSet().popMin(USER_QUEUE_WAIT_KEY.formatted(queue), count) // count 개수 만큼 사용자 제거
-            .flatMap(member -> reactiveRedisTemplate.opsForZSet().add(USER_QUEUE_PROCEED_KEY.formatted(queue), member.getValue(), Instant.now().getEpochSecond()))
-            .count();
+        return admitUsers(queue, count)
+            .map(admitted -> (long) admitted.size());
     }
 
-    // 진입이 가능한 상태인지 조회 (특정 사용자가 진입 가능 큐에 존재하는지 확인)
-    public Mono<Boolean> isAllowed(final String queue, final Long userId) {
-        return reactiveRedisTemplate.opsForZSet().rank(USER_QUEUE_PROCEED_KEY.formatted(queue), userId.toString())
-            .defaultIfEmpty(-1L) // 값이 없다면 -1 리턴 (등록되지 않음)
-            .map(rank -> rank >= 0); // rank가 0보다 크다면 등록된 것으로 간주
+    // 진입을 허용하고, 허용된 사용자 id 목록을 레인 순서, 레인 안에서는 대기 순서대로 리턴 (shard 를 나눈 큐는 shard 별로 이어서 리턴)
+    public Mono<List<Long>> admitUsers(final String queue, final Long count) {
+        return queueStore.admit(queue, count)
+            .doOnNext(admitted -> admitted.forEach(userId -> {
+                admittedUserCache.admitted(queue, userId);
+                lookupCoalescer.invalidate(queue, userId);
+            }))
+            .transform(mono -> metered(mono, "queue.allow", queue));
     }
 
-    // 토큰을 통해 접속 가능 여부 조회
-    public Mono<Boolean> isAllowedByToken(final String queue, final Long userId, final String token) {
-        return this.generateToken(queue, userId)
-            .filter(gen -> gen.equalsIgnoreCase(token))
-            .map(i -> true) // 토큰 값이 같다면 true 리턴 (토큰 검증 성공)
-            .defaultIfEmpty(false);
+    // 대기자가 있는 큐 목록 조회
+    public Flux<String> getActiveQueues() {
+        return queueStore.activeQueues();
     }
 
-    public Mono<Long> getRank(final String queue, final Long userId) {
-        return reactiveRedisTemplate.opsForZSet().rank(USER_QUEUE_WAIT_KEY.formatted(queue), userId.toString())
-            .defaultIfEmpty(-1L) // 값이 없다면 -1 리턴 (등록되지 않음)
-            .map(rank -> rank >= 0 ? rank + 1 : rank); // ex. 0번째 대기자 -> 1번째 대기자
+    // 접속 허용 사용자가 남아 있을 수 있는 큐 목록 조회 (대기자가 모두 빠진 큐 포함)
+    public Flux<String> getProceedQueues() {
+        return queueStore.proceedQueues();
     }
 
-    public Mono<String> generateToken(final String queue, final Long userId)  {
-        // sha256 해시 데이터 생성
-        MessageDigest digest = null;
-        try {
-            digest = MessageDigest.getInstance("SHA-256");
-
-            var input = "user-queue-%s-%d".formatted(queue, userId); // token 생성 문자열
-            byte[] encodeHash = digest.digest(input.getBytes(StandardCharsets.UTF_8)); // 해시 값 생성
+    // 여러 서버가 같은 대기열을 공유하는지 (queue.store=memory 면 false)
+    public boolean isSharedStore() {
+        return queueStore.isShared();
+    }
 
-            StringBuilder hexString = new StringBuilder();
-            for (byte aByte : encodeHash) { // byte를 하나씩 hex 포멧으로 추가
-                hexString.append(String.format("%02x", aByte));
-            }
+    // 큐 상태 지표 조회 (모든 레인의 대기 큐, 접속 허용 큐 크기, 누적 허용 수)
+    public Mono<QueueStats> getQueueStats(final String queue) {
+        return queueStore.stats(queue);
+    }
 
-            return Mono.just(hexString.toString());
+    // 접속 허용 큐 크기 조회
+    public Mono<Long> getProceedSize(final String queue) {
+        return queueStore.proceedSize(queue);
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+    // 진입이 가능한 상태인지 조회 (특정 사용자가 진입 가능 큐에 존재하고, 접속 허용 유지 시간이 지나지 않았는지 확인)
+    public Mono<Boolean> isAllowed(final String queue, final Long userId) {
+        if (admittedUserCache.isAdmitted(queue, userId)) { // 최근 허용이 확인된 사용자는 저장소 조회 생략
+            return Mono.just(true);
         }
+
+        // 같은 사용자의 동시 조회는 하나의 조회로 합침
+        return lookupCoalescer.share(LookupCoalescer.ALLOWED, queue, userId, () -> queueStore.isAllowed(queue, userId)
+            .doOnNext(allowed -> {
+                if (allowed) {
+                    admittedUserCache.admitted(queue, userId);
+                }
+            })
+            .transform(mono -> metered(mono, "queue.allowed", queue)));
     }
 
-    @Scheduled(initialDelay = 5000, fixedDelay = 3000) // 서버 시작 후 5초 이후부터 스케쥴 동작, 3초 주기로 아래 메소드 실행
-    public void scheduleAllowUser() {
-        if (!scheduling) {
-            log.info("passed scheduling ...");
-            return ;
+    // 접속 허용된 사용자의 접속 허용 유지 시간 연장, 연장되었다면 true 리턴
+    public Mono<Boolean> touchProceed(final String queue, final Long userId) {
+        if (!userQueueProperties.proceed().extendOnTouch()) {
+            return Mono.just(false);
         }
 
-        log.info("called scheduling ...");
+        return queueStore.touch(queue, userId);
+    }
+
+    // 접속 허용 유지 시간이 지난 사용자를 최대 sweepBatchSize 명까지 제거하고, 제거된 사용자 수 리턴
+    public Mono<Long> expireProceedUsers(final String queue) {
+        return queueStore.expire(queue);
+    }
+
+    // 토큰을 통해 접속 가능 여부 조회 (토큰이 유효하고, 실제로 접속 허용 큐에 있는 경우에만 true)
+    public Mono<Boolean> isAllowedByToken(final String queue, final Long userId, final String token) {
+        return Mono.fromSupplier(() -> tokenEngine.verify(queue, userId, token))
+            .subscribeOn(tokenEngine.scheduler()) // 해시 계산은 event loop 밖에서 실행
+            .flatMap(valid -> valid ? isAllowed(queue, userId) : Mono.just(false)); // 토큰 검증에 실패하면 저장소 조회 생략
+    }
 
-        Long maxAllowUserCount = 100L; // 한 번에 허용시킬 유저 수
+    public Mono<Long> getRank(final String queue, final Long userId) {
+        // 같은 사용자의 동시 조회는 하나의 조회로 합침
+        return lookupCoalescer.share(LookupCoalescer.RANK, queue, userId, () -> {
+            var rank = userQueueProperties.rank().mode() == RankMode.APPROXIMATE
+                ? getApproximateRank(queue, userId)
+                : queueStore.rank(queue, userId);
+            return rank.transform(mono -> metered(mono, "queue.rank", queue));
+        });
+    }
 
-        // 사용자를 허용하는 로직
-        reactiveRedisTemplate.scan(ScanOptions.scanOptions()
-                .match(USER_QUEUE_WAIT_KEY_FOR_SCAN)
-                .count(100) // 최대 100개의 대기 키 조회
-                .build()
+    // 등록 순번 - 누적 허용 수 (대기자가 ZPOPMIN 으로만 빠지므로 누적 허용 수 만큼 앞 순번이 빠져 있음)
+    private Mono<Long> getApproximateRank(final String queue, final Long userId) {
+        return Mono.zip(
+                rankSnapshotCache.sequenceOf(queue, userId, () -> queueStore.sequenceOf(queue, userId)),
+                rankSnapshotCache.admittedCountOf(queue, () -> queueStore.admittedCount(queue))
             )
-            .map(key -> key.split(":")[2]) // * 부분 조회
-            .flatMap(queue -> allowUser(queue, maxAllowUserCount).map(allowed -> Tuples.of(queue, allowed)))
-            .doOnNext(tuple -> log.info("Tried %d and allowed %d members of %s queue".formatted(maxAllowUserCount, tuple.getT2(), tuple.getT1())))
-            .subscribe();
+            .map(tuple -> tuple.getT1() - tuple.getT2())
+            .doOnNext(rank -> {
+                if (rank <= 0) { // 이미 허용된 사용자는 재등록될 수 있으므로 다음 조회 시 등록 순번을 다시 확인
+                    rankSnapshotCache.invalidate(queue, userId);
+                }
+            })
+            .filter(rank -> rank > 0)
+            .defaultIfEmpty(-1L); // 대기 큐에 없다면 -1 리턴
+    }
+
+    // 대기 순번 일괄 조회 (BULK_CHUNK_SIZE 명씩 묶어서 조회, 등록되지 않은 사용자는 -1)
+    // 요청과 같은 순서 / 같은 수로 응답하므로, 같은 사용자가 여러 번 있으면 그 수만큼 응답
+    public Flux<UserRankResponse> getRanks(final String queue, final Flux<Long> userIds) {
+        return userIds
+            .buffer(BULK_CHUNK_SIZE)
+            .concatMap(chunk -> queueStore.statuses(queue, chunk)
+                .flatMapIterable(results -> {
+                    List<UserRankResponse> ranks = new ArrayList<>(chunk.size());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ranks.add(new UserRankResponse(chunk.get(i), results.get(i).rank()));
+                    }
+                    return ranks;
+                }));
+    }
+
+    // 여러 사용자의 대기 순번과 접속 허용 여부를 한 번에 조회 (userId -> 상태, 요청 순서 유지)
+    // 같은 사용자가 여러 번 있으면 한 번만 조회하므로, 결과는 중복을 제거한 사용자 수만큼
+    public Mono<Map<Long, QueueStatusResponse>> getQueueStatuses(final String queue, final List<Long> userIds) {
+        var distinctUserIds = userIds.stream().distinct().toList();
+        return queueStore.statuses(queue, distinctUserIds)
+            .map(results -> {
+                Map<Long, QueueStatusResponse> statuses = new LinkedHashMap<>();
+                for (int i = 0; i < distinctUserIds.size(); i++) {
+                    statuses.put(distinctUserIds.get(i), results.get(i));
+                }
+                return statuses;
+            });
+    }
+
+    public Mono<String> generateToken(final String queue, final Long userId)  {
+        return Mono.fromSupplier(() -> tokenEngine.generate(queue, userId))
+            .subscribeOn(tokenEngine.scheduler()) // 해시 계산은 event loop 밖에서 실행
+            .transform(mono -> metered(mono, "queue.token", queue));
+    }
+
+    // 호출 수 / 지연 시간 지표 기록 (name.flow.duration, tag: queue, status, exception)
+    private <T> Mono<T> metered(final Mono<T> mono, final String name, final String queue) {
+        return mono.name(name)
+            .tag("queue", queueTags.of(queue)) // 클라이언트가 보낸 queue 이름마다 histogram 이 생기지 않도록 제한
+            .tap(Micrometer.metrics(meterRegistry));
     }
 }
@@ -0,0 +1,98 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 대기 순번 / 접속 허용 상태를 연결된 사용자에게 push 하는 컴포넌트
+ * - 사용자마다 polling 으로 ZRANK 를 호출하는 대신, 스케쥴 주기마다 큐 단위로 상태를 한 번에 계산해서 연결된 세션에 전달
+ * - 같은 사용자가 여러 탭을 열더라도 (queue, userId) 당 하나의 sink 를 공유
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserQueueStatusBroadcaster {
+
+    private static final int STATUS_BATCH_SIZE = 500; // 스크립트 한 번에 조회할 최대 사용자 수
+
+    private final UserQueueService userQueueService;
+
+    // queue -> (userId -> 구독 정보)
+    private final Map<String, Map<Long, UserSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    // 상태가 바뀔 때마다 push, 접속이 허용되면 마지막 상태를 보내고 종료
+    public Flux<QueueStatusResponse> subscribe(final String queue, final Long userId) {
+        return Flux.defer(() -> {
+            var subscription = acquire(queue, userId);
+
+            return Flux.concat(
+                    // 연결 직후에는 다음 스케쥴까지 기다리지 않고 현재 상태를 바로 전달
+                    userQueueService.getQueueStatuses(queue, List.of(userId)).map(statuses -> statuses.get(userId)),
+                    subscription.sink.asFlux()
+                )
+                .distinctUntilChanged()
+                .takeUntil(QueueStatusResponse::allowed)
+                .doFinally(signal -> release(queue, userId));
+        });
+    }
+
+    @Scheduled(initialDelay = 5000, fixedDelay = 3000) // 서버 시작 후 5초 이후부터 3초 주기로 연결된 사용자에게 상태 전달
+    public void broadcastQueueStatus() {
+        if (subscriptions.isEmpty()) {
+            return ;
+        }
+
+        Flux.fromIterable(subscriptions.entrySet())
+            .flatMap(entry -> Flux.fromIterable(List.copyOf(entry.getValue().keySet()))
+                .buffer(STATUS_BATCH_SIZE)
+                .concatMap(userIds -> userQueueService.getQueueStatuses(entry.getKey(), userIds))
+                .doOnNext(statuses -> statuses.forEach((userId, status) -> {
+                    var subscription = entry.getValue().get(userId);
+                    if (subscription != null) {
+                        subscription.sink.tryEmitNext(status); // 구독자가 없거나 경합이 생기면 다음 주기에 다시 전달
+                    }
+                })))
+            .doOnError(e -> log.warn("failed to broadcast queue status", e))
+            .subscribe();
+    }
+
+    // 사용자의 sink 가 남아 있는지 (연결이 모두 끊기면 제거됨)
+    boolean isSubscribed(final String queue, final Long userId) {
+        var users = subscriptions.get(queue);
+        return users != null && users.containsKey(userId);
+    }
+
+    private UserSubscription acquire(final String queue, final Long userId) {
+        var acquired = new AtomicReference<UserSubscription>();
+        subscriptions.compute(queue, (key, users) -> {
+            var queueUsers = users == null ? new ConcurrentHashMap<Long, UserSubscription>() : users;
+            var subscription = queueUsers.computeIfAbsent(userId, id -> new UserSubscription());
+            subscription.subscribers++;
+            acquired.set(subscription);
+            return queueUsers;
+        });
+        return acquired.get();
+    }
+
+    private void release(final String queue, final Long userId) {
+        subscriptions.computeIfPresent(queue, (key, users) -> {
+            users.computeIfPresent(userId, (id, subscription) -> --subscription.subscribers == 0 ? null : subscription);
+            return users.isEmpty() ? null : users; // 연결된 사용자가 없는 큐는 제거
+        });
+    }
+
+    private static final class UserSubscription {
+        private final Sinks.Many<QueueStatusResponse> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers; // subscriptions.compute 안에서만 변경되므로 별도의 동기화가 필요 없음
+    }
+}
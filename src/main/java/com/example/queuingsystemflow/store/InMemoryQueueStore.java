@@ -0,0 +1,276 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import com.example.queuingsystemflow.service.QueueStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 한 서버 안에서만 동작하는 메모리 대기열 저장소 (queue.store=memory)
+ * - 네트워크 왕복 없이 등록 / 대기 순번 조회 O(1), 진입 허용 / 만료는 처리하는 사용자 수 만큼 O(1)
+ * - 큐마다 하나의 잠금으로 직렬화 (redis 스크립트와 같은 원자성), 잠금 안에서는 전체 대기자 / 허용자를 훑지 않으므로 요청 스레드에서 바로 실행
+ * - 대기자와 접속 허용 사용자가 모두 빠진 큐는 제거 (큐 이름은 클라이언트가 정하므로), 다시 등록되면 등록 순번 / 누적 허용 수는 0부터 시작
+ * - 서버가 재시작되면 대기열이 사라지고, 여러 서버가 같은 대기열을 공유할 수 없음 (단일 서버 / 작은 이벤트 / 테스트 용)
+ * - 정렬은 항상 도착 순서 (ordering=timestamp 의 같은 초 userId 문자열 정렬은 적용되지 않음), shard / cluster 설정은 사용하지 않음
+ */
+@Component
+@ConditionalOnProperty(prefix = "queue", name = "store", havingValue = "memory")
+public class InMemoryQueueStore implements QueueStore {
+
+    private final UserQueueProperties userQueueProperties;
+    private final List<String> lanes; // general 레인부터 설정 순서대로
+    private final long[] weights; // 레인 별 허용 비중
+
+    private final Map<String, MemoryQueue> queues = new ConcurrentHashMap<>();
+    private final Set<String> activeQueues = ConcurrentHashMap.newKeySet(); // 대기자가 있는 큐 목록
+    private final Set<String> proceedQueues = ConcurrentHashMap.newKeySet(); // 접속 허용 사용자가 있는 큐 목록
+
+    public InMemoryQueueStore(final UserQueueProperties userQueueProperties) {
+        this.userQueueProperties = userQueueProperties;
+        this.lanes = userQueueProperties.laneNames();
+        this.weights = lanes.stream().mapToLong(lane -> userQueueProperties.lanes().get(lane)).toArray();
+    }
+
+    @Override
+    public Mono<List<Registration>> register(final String queue, final String lane, final List<Long> userIds) {
+        return Mono.fromSupplier(() -> {
+            var target = lanes.indexOf(lane);
+            while (true) {
+                var state = queues.computeIfAbsent(queue, key -> new MemoryQueue(lanes.size()));
+                synchronized (state) {
+                    if (state.removed) { // 제거 중인 큐면 새 큐에 등록
+                        continue;
+                    }
+                    return register(queue, state, target, userIds);
+                }
+            }
+        });
+    }
+
+    private List<Registration> register(final String queue, final MemoryQueue state, final int target, final List<Long> userIds) {
+        List<Registration> results = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            var rank = state.rank(userId); // 이미 다른 레인에 등록된 사용자는 그 레인의 순번
+            var registered = rank < 0;
+            if (registered) {
+                rank = state.lanes[target].add(userId);
+            }
+            results.add(new Registration(userId, registered, rank + 1));
+        }
+        if (state.waiting() > 0) {
+            activeQueues.add(queue);
+        }
+        return results;
+    }
+
+    @Override
+    public Mono<List<Long>> admit(final String queue, final long count) {
+        return withQueue(queue, List.of(), state -> {
+            // admit-users.lua 와 같은 smooth weighted round robin (대기자가 없는 레인의 몫은 다른 레인이 가져감)
+            var take = new long[lanes.size()];
+            if (take.length == 1) {
+                take[0] = Math.min(count, state.lanes[0].size());
+            } else {
+                for (long i = 0; i < count; i++) {
+                    var selected = -1;
+                    var total = 0L;
+                    for (int lane = 0; lane < take.length; lane++) {
+                        if (state.lanes[lane].size() > take[lane]) {
+                            state.current[lane] += weights[lane];
+                            total += weights[lane];
+                            if (selected < 0 || state.current[lane] > state.current[selected]) {
+                                selected = lane;
+                            }
+                        }
+                    }
+                    if (selected < 0) {
+                        break;
+                    }
+                    state.current[selected] -= total;
+                    take[selected]++;
+                }
+            }
+
+            var now = Instant.now().getEpochSecond();
+            List<Long> admitted = new ArrayList<>();
+            for (int lane = 0; lane < take.length; lane++) {
+                for (long i = 0; i < take[lane]; i++) {
+                    var userId = state.lanes[lane].poll();
+                    state.proceed.put(userId, now);
+                    admitted.add(userId);
+                }
+            }
+            state.admitted += admitted.size();
+            if (!admitted.isEmpty()) {
+                proceedQueues.add(queue);
+            }
+            if (state.waiting() == 0) { // 대기자가 모두 빠진 큐는 활성 큐 목록에서 제거
+                activeQueues.remove(queue);
+                Arrays.fill(state.current, 0L);
+                removeIfEmpty(queue, state);
+            }
+            return admitted;
+        });
+    }
+
+    @Override
+    public Mono<Long> rank(final String queue, final Long userId) {
+        return withQueue(queue, -1L, state -> {
+            var rank = state.rank(userId);
+            return rank < 0 ? -1L : rank + 1;
+        });
+    }
+
+    @Override
+    public Mono<List<QueueStatusResponse>> statuses(final String queue, final List<Long> userIds) {
+        var unknown = userIds.stream().map(userId -> new QueueStatusResponse(-1L, false)).toList();
+        return withQueue(queue, unknown, state -> {
+            var cutoff = proceedCutoff();
+            List<QueueStatusResponse> statuses = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                var rank = state.rank(userId);
+                statuses.add(new QueueStatusResponse(rank < 0 ? -1L : rank + 1, state.proceed.get(userId, Long.MIN_VALUE) >= cutoff));
+            }
+            return statuses;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> isAllowed(final String queue, final Long userId) {
+        return withQueue(queue, false, state -> state.proceed.get(userId, Long.MIN_VALUE) >= proceedCutoff());
+    }
+
+    @Override
+    public Mono<Boolean> touch(final String queue, final Long userId) {
+        return withQueue(queue, false, state -> {
+            if (state.proceed.get(userId, Long.MIN_VALUE) < proceedCutoff()) {
+                return false; // 허용되지 않았거나 이미 만료됨
+            }
+            state.proceed.put(userId, Instant.now().getEpochSecond());
+            return true;
+        });
+    }
+
+    @Override
+    public Mono<Long> expire(final String queue) {
+        return withQueue(queue, 0L, state -> {
+            var expired = state.proceed.expire(proceedCutoff(), userQueueProperties.proceed().sweepBatchSize());
+            if (state.proceed.size() == 0) {
+                proceedQueues.remove(queue);
+                removeIfEmpty(queue, state);
+            }
+            return expired;
+        });
+    }
+
+    @Override
+    public Mono<QueueStats> stats(final String queue) {
+        return withQueue(queue, new QueueStats(0L, 0L, 0L), state -> new QueueStats(state.waiting(), state.proceed.size(), state.admitted));
+    }
+
+    @Override
+    public Mono<Long> proceedSize(final String queue) {
+        return withQueue(queue, 0L, state -> (long) state.proceed.size());
+    }
+
+    @Override
+    public Flux<String> activeQueues() {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(activeQueues)));
+    }
+
+    @Override
+    public Flux<String> proceedQueues() {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(proceedQueues)));
+    }
+
+    // 서버마다 자신의 대기열만 가짐
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    // approximate 모드는 레인이 하나일 때만 사용
+    @Override
+    public Mono<Long> sequenceOf(final String queue, final Long userId) {
+        return withQueue(queue, -1L, state -> state.lanes[0].sequence(userId))
+            .filter(sequence -> sequence > 0);
+    }
+
+    @Override
+    public Mono<Long> admittedCount(final String queue) {
+        return withQueue(queue, 0L, state -> state.admitted);
+    }
+
+    // 큐 잠금 안에서 실행 (등록된 적 없거나 제거된 큐는 empty 값 리턴)
+    private <T> Mono<T> withQueue(final String queue, final T empty, final Function<MemoryQueue, T> action) {
+        return Mono.fromSupplier(() -> {
+            var state = queues.get(queue);
+            if (state == null) {
+                return empty;
+            }
+            synchronized (state) {
+                return state.removed ? empty : action.apply(state);
+            }
+        });
+    }
+
+    // 대기자와 접속 허용 사용자가 모두 빠진 큐 제거 (큐 잠금 안에서 호출)
+    private void removeIfEmpty(final String queue, final MemoryQueue state) {
+        if (state.waiting() == 0 && state.proceed.size() == 0) {
+            state.removed = true;
+            queues.remove(queue, state);
+        }
+    }
+
+    // 이 시각 이전에 허용된 사용자는 만료된 것으로 간주
+    private long proceedCutoff() {
+        return Instant.now().getEpochSecond() - userQueueProperties.proceed().sessionWindow().toSeconds();
+    }
+
+    private static final class MemoryQueue {
+        private final LaneQueue[] lanes; // general 레인부터 설정 순서대로
+        private final long[] current; // 레인 별 round robin current weight
+        private final ProceedQueue proceed = new ProceedQueue(); // userId -> 허용 시각 (unix timestamp)
+        private long admitted; // 누적 허용 수
+        private boolean removed; // 큐 목록에서 제거되어 더 이상 등록받지 않음
+
+        private MemoryQueue(final int laneCount) {
+            this.lanes = new LaneQueue[laneCount];
+            for (int lane = 0; lane < laneCount; lane++) {
+                lanes[lane] = new LaneQueue();
+            }
+            this.current = new long[laneCount];
+        }
+
+        // 등록된 레인에서 0부터 시작하는 대기 순번 (없으면 -1)
+        private long rank(final long userId) {
+            for (LaneQueue lane : lanes) {
+                var rank = lane.rank(userId);
+                if (rank >= 0) {
+                    return rank;
+                }
+            }
+            return -1L;
+        }
+
+        private long waiting() {
+            var waiting = 0L;
+            for (LaneQueue lane : lanes) {
+                waiting += lane.size();
+            }
+            return waiting;
+        }
+    }
+}
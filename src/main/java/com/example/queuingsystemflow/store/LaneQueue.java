@@ -0,0 +1,73 @@
+package com.example.queuingsystemflow.store;
+
+/**
+ * 레인 하나의 메모리 대기 큐 (등록 순서대로 꺼냄)
+ * - userId -> 위치 map, 위치 별 userId 배열로 구성 (boxing 없음)
+ * - 대기자는 앞에서만 빠지므로 대기 순번은 위치 - head (O(1))
+ * - 위치는 등록할 때마다 1씩 증가하고, 배열 끝에 닿으면 앞에서 빠진 위치를 당겨서 압축 (대기자가 절반 넘게 남아 있으면 두 배로 확장)
+ * - 동기화하지 않으므로 호출하는 쪽에서 잠금 필요
+ */
+final class LaneQueue {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LongLongHashMap positions = new LongLongHashMap(); // userId -> 위치
+    private long[] userIds = new long[INITIAL_CAPACITY]; // 위치 -> userId
+    private int head; // 가장 앞 대기자 위치 (대기자는 앞에서만 빠지므로 head 이후는 모두 대기 중)
+    private int tail; // 다음 등록 위치
+    private long base; // 압축하면서 당겨진 위치 수 (등록 순번 = base + 위치 + 1)
+
+    int size() {
+        return positions.size();
+    }
+
+    // 0부터 시작하는 대기 순번 (없으면 -1)
+    long rank(final long userId) {
+        var position = positions.get(userId, -1L);
+        return position < 0 ? -1L : position - head;
+    }
+
+    // 1부터 시작하는 등록 순번 (없으면 -1)
+    long sequence(final long userId) {
+        var position = positions.get(userId, -1L);
+        return position < 0 ? -1L : base + position + 1;
+    }
+
+    // 맨 뒤에 등록하고 0부터 시작하는 대기 순번 리턴 (이미 등록되었는지는 호출하는 쪽에서 확인)
+    long add(final long userId) {
+        if (tail == userIds.length) {
+            compact();
+        }
+        userIds[tail] = userId;
+        positions.put(userId, tail);
+        tail++;
+        return positions.size() - 1;
+    }
+
+    // 가장 앞 대기자를 꺼냄 (비어 있지 않은지는 호출하는 쪽에서 확인)
+    long poll() {
+        var userId = userIds[head];
+        positions.remove(userId);
+        head++;
+        if (positions.size() == 0) { // 비워지면 배열을 처음부터 다시 사용
+            base += tail;
+            head = 0;
+            tail = 0;
+        }
+        return userId;
+    }
+
+    private void compact() {
+        var live = tail - head;
+        var capacity = live > userIds.length / 2 ? userIds.length * 2 : userIds.length;
+        var moved = new long[capacity];
+        System.arraycopy(userIds, head, moved, 0, live);
+        for (int position = 0; position < live; position++) {
+            positions.put(moved[position], position);
+        }
+        userIds = moved;
+        base += head;
+        head = 0;
+        tail = live;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.queuingsystemflow.store;
+
+/**
+ * long -> long open addressing (linear probing) hash map
+ * - key / value 를 primitive 배열에 저장해서 Long boxing 과 entry 객체 할당이 없음
+ * - 삭제는 tombstone 대신 뒤의 entry 를 당겨오는 backward shift 방식 (삭제가 많아도 탐색 길이가 늘어나지 않음)
+ * - 0 은 빈 칸 표시로 사용하므로 key 0 은 별도 필드에 저장
+ * - 동기화하지 않으므로 호출하는 쪽에서 잠금 필요
+ */
+final class LongLongHashMap {
+
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size; // key 0 제외
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    LongLongHashMap() {
+        this(16);
+    }
+
+    LongLongHashMap(final int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 15)) << 1; // load factor 0.5 이하
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    boolean containsKey(final long key) {
+        if (key == FREE) {
+            return hasZeroKey;
+        }
+        return keys[indexOf(key)] == key;
+    }
+
+    // key 가 없으면 missing 리턴
+    long get(final long key, final long missing) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        var index = indexOf(key);
+        return keys[index] == key ? values[index] : missing;
+    }
+
+    void put(final long key, final long value) {
+        if (key == FREE) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return ;
+        }
+
+        var index = indexOf(key);
+        if (keys[index] == key) {
+            values[index] = value;
+            return ;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) >> 1) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    boolean remove(final long key) {
+        if (key == FREE) {
+            var existed = hasZeroKey;
+            hasZeroKey = false;
+            return existed;
+        }
+
+        var gap = indexOf(key);
+        if (keys[gap] != key) {
+            return false;
+        }
+        keys[gap] = FREE;
+        size--;
+
+        // 비워진 칸 뒤의 entry 중, 원래 위치에서 빈 칸까지 거리가 현재 위치까지 거리 이상인 entry 를 당겨옴
+        for (int index = (gap + 1) & mask; keys[index] != FREE; index = (index + 1) & mask) {
+            var home = hash(keys[index]) & mask;
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                keys[index] = FREE;
+                gap = index;
+            }
+        }
+        return true;
+    }
+
+    void forEach(final EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(FREE, zeroValue);
+        }
+        for (int index = 0; index < keys.length; index++) {
+            if (keys[index] != FREE) {
+                consumer.accept(keys[index], values[index]);
+            }
+        }
+    }
+
+    // key 가 있는 칸 또는 key 를 넣을 빈 칸
+    private int indexOf(final long key) {
+        var index = hash(key) & mask;
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(final int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                var index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // 연속된 userId 가 인접한 칸에 몰리지 않도록 섞음 (murmur3 finalizer)
+    private static int hash(final long key) {
+        var h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.queuingsystemflow.store;
+
+/**
+ * 큐 하나의 메모리 접속 허용 큐 (허용 / 연장된 시각 순서대로 만료)
+ * - userId -> 허용 시각 map, (userId, 허용 시각) 을 시각 순서대로 쌓은 ring buffer 로 구성 (boxing 없음)
+ * - 허용 / 연장 시각은 항상 현재 시각이므로 ring buffer 는 시각 순으로 쌓이고, 만료는 앞에서부터 cutoff 이전 항목만 확인 (전체를 훑지 않음)
+ * - 연장되기 전의 항목은 map 의 시각과 달라서 만료할 때 건너뜀
+ * - 동기화하지 않으므로 호출하는 쪽에서 잠금 필요
+ */
+final class ProceedQueue {
+
+    private static final int INITIAL_CAPACITY = 64; // 2의 거듭제곱
+
+    private final LongLongHashMap allowedAt = new LongLongHashMap(); // userId -> 마지막 허용 / 연장 시각
+    private long[] userIds = new long[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int head; // 가장 오래된 항목 위치
+    private int count; // ring buffer 에 쌓인 항목 수 (연장되기 전 항목 포함)
+
+    int size() {
+        return allowedAt.size();
+    }
+
+    // 허용 / 연장 시각 (없으면 missing)
+    long get(final long userId, final long missing) {
+        return allowedAt.get(userId, missing);
+    }
+
+    // 허용 또는 연장 (now 는 이전 호출의 시각보다 작지 않아야 함)
+    void put(final long userId, final long now) {
+        allowedAt.put(userId, now);
+        if (count == userIds.length) {
+            grow();
+        }
+        var tail = (head + count) & (userIds.length - 1);
+        userIds[tail] = userId;
+        times[tail] = now;
+        count++;
+    }
+
+    // cutoff 이전에 허용 / 연장된 사용자를 최대 limit 명까지 제거하고, 제거된 사용자 수 리턴
+    long expire(final long cutoff, final long limit) {
+        var removed = 0L;
+        while (count > 0 && removed < limit && times[head] < cutoff) {
+            var userId = userIds[head];
+            if (allowedAt.get(userId, Long.MIN_VALUE) == times[head]) { // 그 이후 연장되지 않은 사용자
+                allowedAt.remove(userId);
+                removed++;
+            }
+            head = (head + 1) & (userIds.length - 1);
+            count--;
+        }
+        return removed;
+    }
+
+    private void grow() {
+        var capacity = userIds.length * 2;
+        var movedUserIds = new long[capacity];
+        var movedTimes = new long[capacity];
+        var first = userIds.length - head; // head 부터 배열 끝까지
+        System.arraycopy(userIds, head, movedUserIds, 0, first);
+        System.arraycopy(userIds, 0, movedUserIds, first, head);
+        System.arraycopy(times, head, movedTimes, 0, first);
+        System.arraycopy(times, 0, movedTimes, first, head);
+        userIds = movedUserIds;
+        times = movedTimes;
+        head = 0;
+    }
+}
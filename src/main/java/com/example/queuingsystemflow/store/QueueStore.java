@@ -0,0 +1,61 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import com.example.queuingsystemflow.service.QueueStats;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 대기 큐 / 접속 허용 큐 저장소
+ * - redis (기본값, queue.store=redis): 여러 서버가 같은 큐를 공유
+ * - memory (queue.store=memory): 한 서버 안에서만 동작하는 대기열, 네트워크 왕복 없이 O(1) 로 순번 조회
+ * 대기 순번은 1부터 시작하고, 대기 큐에 없으면 -1
+ */
+public interface QueueStore {
+
+    // 요청 순서대로 레인에 등록하고, 사용자 별 (신규 등록 여부, 대기 순번) 리턴 (이미 다른 레인에 등록된 사용자는 그 레인의 순번)
+    Mono<List<Registration>> register(String queue, String lane, List<Long> userIds);
+
+    // 레인 별 비중에 따라 최대 count 명을 대기 큐에서 꺼내 접속 허용 큐로 옮기고, 허용된 사용자를 레인 순서, 레인 안에서는 대기 순서대로 리턴
+    Mono<List<Long>> admit(String queue, long count);
+
+    // 등록된 레인 안에서의 대기 순번
+    Mono<Long> rank(String queue, Long userId);
+
+    // 요청 순서대로 사용자 별 대기 순번과 접속 허용 여부
+    Mono<List<QueueStatusResponse>> statuses(String queue, List<Long> userIds);
+
+    // 접속 허용 큐에 있고, 접속 허용 유지 시간이 지나지 않았는지
+    Mono<Boolean> isAllowed(String queue, Long userId);
+
+    // 접속 허용 유지 시간 연장, 연장되었다면 true
+    Mono<Boolean> touch(String queue, Long userId);
+
+    // 접속 허용 유지 시간이 지난 사용자를 최대 sweepBatchSize 명까지 제거하고, 제거된 사용자 수 리턴
+    Mono<Long> expire(String queue);
+
+    Mono<QueueStats> stats(String queue);
+
+    Mono<Long> proceedSize(String queue);
+
+    // 대기자가 있는 큐 목록
+    Flux<String> activeQueues();
+
+    // 접속 허용 사용자가 남아 있을 수 있는 큐 목록 (대기자가 모두 빠진 큐도 만료 처리를 계속하기 위함)
+    default Flux<String> proceedQueues() {
+        return activeQueues();
+    }
+
+    // 여러 서버가 같은 대기열을 공유하는지 (false 면 서버마다 자신의 대기열을 따로 처리)
+    default boolean isShared() {
+        return true;
+    }
+
+    // 대기 중인 사용자의 등록 순번 (rank.mode=approximate 용, 대기 큐에 없으면 empty)
+    Mono<Long> sequenceOf(String queue, Long userId);
+
+    // 누적 허용 수
+    Mono<Long> admittedCount(String queue);
+}
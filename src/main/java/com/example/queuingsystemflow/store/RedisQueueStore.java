@@ -0,0 +1,672 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import com.example.queuingsystemflow.service.QueueStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.example.queuingsystemflow.config.UserQueueProperties.GENERAL_LANE;
+
+/**
+ * redis sorted set 기반 대기열 저장소 (기본값)
+ * - 큐 별 key 는 slot 이름으로 구분 (shard 를 나눈 큐는 queue#shard, cluster hash tag 사용 시 {queue} / {queue#shard})
+ * - 한 shard 안의 작업은 lua 스크립트 한 번으로 원자적으로 처리하고, shard 를 나눈 큐는 shard 별 결과를 합침
+ * - shard 를 나눈 큐의 진입 허용은 모든 shard 의 앞쪽 대기자를 score 순으로 합쳐서 전체 대기 순서대로 허용
+ * - queue.events.enabled 이면 등록 / 허용 / 만료 스크립트가 같은 slot 의 이벤트 stream 에 함께 기록
+ * - 대기자가 모두 빠진 큐도 접속 허용 사용자가 모두 만료될 때까지 users:queues:proceed 에 남겨서 만료 처리 (만료 이벤트 포함) 를 계속함
+ * - 큐 목록이 생기기 전부터 대기자 / 접속 허용 사용자가 있던 큐는 서버 시작 시 한 번 SCAN 해서 목록에 추가
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "queue", name = "store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RedisQueueStore implements QueueStore {
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final ReactiveRedisTemplate<String, Long> userIdRedisTemplate; // userId 값을 문자열 변환 없이 직렬화
+    private final UserQueueProperties userQueueProperties;
+
+    // shard 를 나눈 큐의 레인 별 round robin 상태 (shard 가 하나인 큐는 users:queue:%s:lanes, 큐 별 스케쥴러 owner 서버에서만 허용하므로 서버 메모리에 유지)
+    private final Map<String, long[]> laneWeights = new ConcurrentHashMap<>();
+
+    // %s: 큐 slot (queue, shard 를 나눈 큐는 queue#shard, cluster hash tag 사용 시 {queue} / {queue#shard})
+    private final String USER_QUEUE_WAIT_KEY = "users:queue:%s:wait"; // 사용자 대기 큐 (general 레인)
+    private final String USER_QUEUE_LANE_WAIT_KEY = "users:queue:%s:wait:%s"; // general 이외 레인의 사용자 대기 큐
+    private final String USER_QUEUE_LANES_KEY = "users:queue:%s:lanes"; // 레인 별 허용 round robin 상태
+    private final String USER_QUEUE_PROCEED_KEY = "users:queue:%s:proceed"; // 사용자 접속 허용 큐
+    private final String USER_QUEUE_SEQUENCE_KEY = "users:queue:%s:seq"; // 대기 순서 sequence (sequence, time-sequence 정렬 방식)
+    private final String USER_QUEUE_ADMITTED_KEY = "users:queue:%s:admitted"; // 누적 허용 수
+    private final String USER_QUEUE_EVENTS_KEY = "users:queue:%s:events"; // 등록 / 허용 / 만료 이벤트 stream (queue.events.enabled)
+    private final String USER_QUEUE_REGISTRY_KEY = "users:queues"; // 대기자가 있는 큐 목록 (등록 시 추가, 대기자가 모두 빠지면 제거)
+    private final String USER_QUEUE_PROCEED_REGISTRY_KEY = "users:queues:proceed"; // 접속 허용 사용자가 있는 큐 목록 (허용 시 추가, 모두 만료되면 제거)
+
+    // 접속 허용 큐 key 를 접속 허용 유지 시간보다 더 유지하는 시간 (스케쥴러가 만료 이벤트를 남기며 정리할 수 있도록, 스케쥴러가 멈춘 경우에만 key 가 통째로 만료)
+    private static final Duration PROCEED_KEY_GRACE = Duration.ofMinutes(1);
+    private static final Duration BACKFILL_TIMEOUT = Duration.ofSeconds(30); // 서버 시작을 오래 막지 않도록 SCAN 을 기다리는 최대 시간
+
+    // 한 명 이상의 ZADD NX + ZRANK를 한 번의 왕복으로 처리하는 스크립트 (sha1은 최초 1회만 계산되고 이후 EVALSHA로 실행)
+    private static final RedisScript<List> REGISTER_WAIT_QUEUE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/register-wait-queue.lua"), List.class);
+    // 레인 별 비중에 따른 ZPOPMIN + ZADD(proceed)를 한 번의 왕복으로 처리하는 스크립트
+    private static final RedisScript<List> ADMIT_USERS_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/admit-users.lua"), List.class);
+    // 여러 사용자의 ZRANK(wait) + ZSCORE(proceed)를 한 번의 왕복으로 처리하는 스크립트
+    private static final RedisScript<List> QUEUE_STATUSES_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/queue-statuses.lua"), List.class);
+    // shard 를 나눈 큐의 레인 별 대기자 수 + 앞쪽 대기자의 score 를 한 번의 왕복으로 조회하는 스크립트
+    private static final RedisScript<List> PEEK_WAIT_QUEUE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/peek-wait-queue.lua"), List.class);
+    // 다른 shard 에서 먼저 등록된 대기자 수 (ZCOUNT) 를 한 번의 왕복으로 처리하는 스크립트
+    private static final RedisScript<List> COUNT_BEFORE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/count-before.lua"), List.class);
+    // 접속 허용 유지 시간 연장
+    private static final RedisScript<Long> TOUCH_PROCEED_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/touch-proceed.lua"), Long.class);
+    // 접속 허용 유지 시간이 지난 사용자 제거 (최대 sweepBatchSize 명)
+    private static final RedisScript<Long> EXPIRE_PROCEED_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/expire-proceed.lua"), Long.class);
+    // 대기 큐 / 접속 허용 큐 크기 + 누적 허용 수 조회
+    private static final RedisScript<List> QUEUE_STATS_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/queue-stats.lua"), List.class);
+
+    @Override
+    public Mono<List<Registration>> register(final String queue, final String lane, final List<Long> userIds) {
+        /**
+         * redis sortedset에 저장
+         * - key: userId
+         * - value: 정렬 방식(queue.ordering)에 따른 score (unix timestamp 또는 등록 순번)
+         * - rank: 몇 번째 대기 순서인지
+         * 등록(ZADD NX)과 순번 조회(ZRANK)를 스크립트 한 번으로 실행하므로, 두 호출 사이에 순번이 바뀌지 않는다.
+         */
+        return perShard(queue, userIds, (shard, shardUserIds) -> registerInShard(queue, shard, lane, shardUserIds))
+            .collectList()
+            .flatMap(results -> registerQueue(queue, results).thenReturn(results));
+    }
+
+    private Mono<List<Registration>> registerInShard(final String queue, final int shard, final String lane, final List<Long> userIds) {
+        var slot = slot(queue, shard);
+        var registry = scriptManagesRegistry(queue);
+        // 활성 큐 목록 (스크립트 밖에서 관리하면 사용하지 않으므로 같은 slot 의 key), sequence, 이벤트 stream, 레인 별 대기 큐
+        var keys = Stream.concat(
+                Stream.of(
+                    registry ? USER_QUEUE_REGISTRY_KEY : USER_QUEUE_SEQUENCE_KEY.formatted(slot),
+                    USER_QUEUE_SEQUENCE_KEY.formatted(slot),
+                    USER_QUEUE_EVENTS_KEY.formatted(slot)
+                ),
+                waitKeys(slot).stream()
+            )
+            .toList();
+        var args = Stream.concat(
+                Stream.of(
+                    userQueueProperties.ordering().scriptArgument(),
+                    String.valueOf(Instant.now().getEpochSecond()),
+                    registry ? queue : "",
+                    String.valueOf(userQueueProperties.laneNames().indexOf(lane) + 1),
+                    eventMaxLength()
+                ),
+                userIds.stream().map(String::valueOf)
+            )
+            .toList();
+
+        return reactiveRedisTemplate.execute(REGISTER_WAIT_QUEUE_SCRIPT, keys, args)
+            .next()
+            .flatMap(result -> {
+                List<ShardRank> ranks = new ArrayList<>(userIds.size());
+                for (int i = 0; i < userIds.size(); i++) {
+                    ranks.add(new ShardRank((Long) result.get(i * 4 + 1), ((Long) result.get(i * 4 + 2)).intValue(), (Long) result.get(i * 4 + 3)));
+                }
+                return mergeRanks(queue, shard, ranks)
+                    .map(merged -> {
+                        List<Registration> results = new ArrayList<>(userIds.size());
+                        for (int i = 0; i < userIds.size(); i++) {
+                            results.add(new Registration(userIds.get(i), ((Long) result.get(i * 4)) == 1L, merged[i]));
+                        }
+                        return results;
+                    });
+            });
+    }
+
+    @Override
+    public Mono<List<Long>> admit(final String queue, final long count) {
+        // 진입을 허용하는 단계 (스크립트 한 번으로 원자적으로 실행되므로 중간에 사용자가 유실되지 않음)
+        // 1. 레인 별 비중에 따라 wait queue에서 count 개수 만큼 사용자를 제거
+        // 2. proceed queue에 사용자를 추가
+        // 3. 허용된 사용자가 있으면 접속 허용 사용자가 있는 큐 목록에 추가
+        if (count <= 0) {
+            return Mono.just(List.of());
+        }
+        return admitUsers(queue, count)
+            .flatMap(admitted -> admitted.isEmpty()
+                ? Mono.just(admitted)
+                : reactiveRedisTemplate.opsForSet().add(USER_QUEUE_PROCEED_REGISTRY_KEY, queue).thenReturn(admitted));
+    }
+
+    private Mono<List<Long>> admitUsers(final String queue, final long count) {
+        var shards = userQueueProperties.shardsOf(queue);
+        if (shards == 1) {
+            var weights = userQueueProperties.laneNames().stream()
+                .map(lane -> String.valueOf(userQueueProperties.lanes().get(lane)))
+                .toList();
+            return admitInShard(queue, 0, count, "weights", weights)
+                .flatMap(admission -> (admission.remaining() == 0 && !scriptManagesRegistry(queue) ? unregisterQueueIfEmpty(queue) : Mono.<Void>empty())
+                    .thenReturn(admission.userIds()));
+        }
+
+        // shard 를 나눈 큐는 모든 shard 의 앞쪽 count 명을 조회해서 전체 대기 순서대로 shard / 레인 별 허용 수를 정함
+        // (조회와 허용 사이에 등록된 사용자는 뒤쪽 score 이므로, 같은 shard 의 앞쪽 사용자가 그대로 허용됨)
+        return Flux.range(0, shards)
+            .flatMapSequential(shard -> peek(queue, shard, count))
+            .collectList()
+            .flatMap(heads -> {
+                var takes = planAdmission(queue, heads, count);
+                var remaining = heads.stream().mapToLong(head -> Arrays.stream(head.waiting()).sum()).sum()
+                    - Arrays.stream(takes).flatMapToLong(Arrays::stream).sum();
+                return Flux.range(0, shards)
+                    .filter(shard -> Arrays.stream(takes[shard]).sum() > 0)
+                    .flatMapSequential(shard -> admitInShard(
+                        queue,
+                        shard,
+                        Arrays.stream(takes[shard]).sum(),
+                        "counts",
+                        Arrays.stream(takes[shard]).mapToObj(String::valueOf).toList()
+                    ))
+                    .flatMapIterable(ShardAdmission::userIds)
+                    .collectList()
+                    .flatMap(admitted -> (remaining <= 0 ? unregisterQueueIfEmpty(queue) : Mono.<Void>empty()).thenReturn(admitted));
+            });
+    }
+
+    // 레인 별로 모든 shard 의 앞쪽 대기자를 score 순으로 합쳐서 (같은 score 는 shard 순) 허용할 사용자가 있는 shard 별 허용 수 계산
+    private long[][] planAdmission(final String queue, final List<ShardHead> heads, final long count) {
+        var lanes = userQueueProperties.laneNames().size();
+        var waiting = new long[lanes];
+        heads.forEach(head -> {
+            for (int lane = 0; lane < lanes; lane++) {
+                waiting[lane] += head.waiting()[lane];
+            }
+        });
+        var laneTakes = laneTakes(queue, waiting, count);
+
+        var takes = new long[heads.size()][lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            var target = lane;
+            heads.stream()
+                .flatMap(head -> Arrays.stream(head.scores()[target]).mapToObj(score -> new WaitingHead(score, head.shard())))
+                .sorted(Comparator.comparingLong(WaitingHead::score).thenComparingInt(WaitingHead::shard))
+                .limit(laneTakes[lane])
+                .forEach(head -> takes[head.shard()][target]++);
+        }
+        return takes;
+    }
+
+    // admit-users.lua 와 같은 smooth weighted round robin 으로 모든 shard 를 합친 레인 별 허용 수 계산 (대기자가 없는 레인의 몫은 다른 레인이 가져감)
+    private long[] laneTakes(final String queue, final long[] waiting, final long count) {
+        var take = new long[waiting.length];
+        if (take.length == 1) {
+            take[0] = Math.min(count, waiting[0]);
+            return take;
+        }
+
+        var lanes = userQueueProperties.laneNames();
+        var current = laneWeights.computeIfAbsent(queue, key -> new long[take.length]);
+        synchronized (current) {
+            for (long i = 0; i < count; i++) {
+                var selected = -1;
+                var total = 0L;
+                for (int lane = 0; lane < take.length; lane++) {
+                    if (waiting[lane] > take[lane]) {
+                        long weight = userQueueProperties.lanes().get(lanes.get(lane));
+                        current[lane] += weight;
+                        total += weight;
+                        if (selected < 0 || current[lane] > current[selected]) {
+                            selected = lane;
+                        }
+                    }
+                }
+                if (selected < 0) {
+                    break;
+                }
+                current[selected] -= total;
+                take[selected]++;
+            }
+        }
+        if (Arrays.stream(waiting).sum() == Arrays.stream(take).sum()) { // 대기자가 모두 빠지면 상태 초기화
+            laneWeights.remove(queue);
+        }
+        return take;
+    }
+
+    private Mono<ShardHead> peek(final String queue, final int shard, final long count) {
+        return reactiveRedisTemplate.execute(PEEK_WAIT_QUEUE_SCRIPT, waitKeys(slot(queue, shard)), List.of(String.valueOf(count)))
+            .next()
+            .map(result -> {
+                var lanes = userQueueProperties.laneNames().size();
+                var waiting = new long[lanes];
+                var scores = new long[lanes][];
+                var index = 0;
+                for (int lane = 0; lane < lanes; lane++) {
+                    waiting[lane] = (Long) result.get(index++);
+                    scores[lane] = new long[((Long) result.get(index++)).intValue()];
+                    for (int i = 0; i < scores[lane].length; i++) {
+                        scores[lane][i] = (Long) result.get(index++);
+                    }
+                }
+                return new ShardHead(shard, waiting, scores);
+            });
+    }
+
+    // mode 가 weights 면 레인 별 허용 비중에 따라 count 명, counts 면 레인 별로 지정한 수 만큼 허용
+    private Mono<ShardAdmission> admitInShard(final String queue, final int shard, final long count, final String mode, final List<String> laneArgs) {
+        var slot = slot(queue, shard);
+        var registry = scriptManagesRegistry(queue);
+        var keys = Stream.concat(
+                Stream.of(
+                    USER_QUEUE_PROCEED_KEY.formatted(slot),
+                    registry ? USER_QUEUE_REGISTRY_KEY : USER_QUEUE_PROCEED_KEY.formatted(slot), // 스크립트 밖에서 관리하면 같은 slot 의 key
+                    USER_QUEUE_ADMITTED_KEY.formatted(slot),
+                    USER_QUEUE_LANES_KEY.formatted(slot),
+                    USER_QUEUE_EVENTS_KEY.formatted(slot)
+                ),
+                waitKeys(slot).stream()
+            )
+            .toList();
+        var args = Stream.concat(
+                Stream.of(String.valueOf(count), String.valueOf(Instant.now().getEpochSecond()), registry ? queue : "", String.valueOf(proceedKeyTtlSeconds()), eventMaxLength(), mode),
+                laneArgs.stream()
+            )
+            .toList();
+
+        return reactiveRedisTemplate.execute(ADMIT_USERS_SCRIPT, keys, args)
+            .next()
+            .map(result -> new ShardAdmission(
+                (Long) result.get(0),
+                result.subList(1, result.size()).stream()
+                    .map(member -> Long.valueOf(member.toString()))
+                    .toList()
+            ));
+    }
+
+    @Override
+    public Mono<Long> rank(final String queue, final Long userId) {
+        if (userQueueProperties.lanes().size() > 1 || userQueueProperties.shardsOf(queue) > 1) { // 등록된 레인 확인 / shard 별 순번 합산
+            return statuses(queue, List.of(userId))
+                .map(statuses -> statuses.get(0).rank());
+        }
+
+        return userIdRedisTemplate.opsForZSet().rank(USER_QUEUE_WAIT_KEY.formatted(slot(queue, 0)), userId)
+            .defaultIfEmpty(-1L) // 값이 없다면 -1 리턴 (등록되지 않음)
+            .map(rank -> rank >= 0 ? rank + 1 : rank); // ex. 0번째 대기자 -> 1번째 대기자
+    }
+
+    @Override
+    public Mono<List<QueueStatusResponse>> statuses(final String queue, final List<Long> userIds) {
+        return perShard(queue, userIds, (shard, shardUserIds) -> statusesInShard(queue, shard, shardUserIds))
+            .collectList();
+    }
+
+    private Mono<List<QueueStatusResponse>> statusesInShard(final String queue, final int shard, final List<Long> userIds) {
+        var slot = slot(queue, shard);
+        return reactiveRedisTemplate.execute(
+                QUEUE_STATUSES_SCRIPT,
+                Stream.concat(Stream.of(USER_QUEUE_PROCEED_KEY.formatted(slot)), waitKeys(slot).stream()).toList(),
+                Stream.concat(Stream.of(proceedCutoff()), userIds.stream()).map(String::valueOf).toList()
+            )
+            .next()
+            .flatMap(result -> {
+                List<ShardRank> ranks = new ArrayList<>(userIds.size());
+                for (int i = 0; i < userIds.size(); i++) {
+                    ranks.add(new ShardRank((Long) result.get(i * 4), ((Long) result.get(i * 4 + 2)).intValue(), (Long) result.get(i * 4 + 3)));
+                }
+                return mergeRanks(queue, shard, ranks)
+                    .map(merged -> {
+                        List<QueueStatusResponse> statuses = new ArrayList<>(userIds.size());
+                        for (int i = 0; i < userIds.size(); i++) {
+                            statuses.add(new QueueStatusResponse(merged[i], ((Long) result.get(i * 4 + 1)) == 1L));
+                        }
+                        return statuses;
+                    });
+            });
+    }
+
+    @Override
+    public Mono<Boolean> isAllowed(final String queue, final Long userId) {
+        return userIdRedisTemplate.opsForZSet()
+            .score(USER_QUEUE_PROCEED_KEY.formatted(slot(queue, shardOf(queue, userId))), userId) // ZRANK 대신 O(1)인 ZSCORE 사용
+            .map(allowedAt -> allowedAt >= proceedCutoff())
+            .defaultIfEmpty(false); // 값이 없다면 false 리턴 (허용되지 않음)
+    }
+
+    @Override
+    public Mono<Boolean> touch(final String queue, final Long userId) {
+        return reactiveRedisTemplate.execute(
+                TOUCH_PROCEED_SCRIPT,
+                List.of(USER_QUEUE_PROCEED_KEY.formatted(slot(queue, shardOf(queue, userId)))),
+                List.of(userId.toString(), String.valueOf(Instant.now().getEpochSecond()), String.valueOf(proceedCutoff()), String.valueOf(proceedKeyTtlSeconds()))
+            )
+            .next()
+            .map(touched -> touched == 1L);
+    }
+
+    @Override
+    public Mono<Long> expire(final String queue) {
+        return Flux.range(0, userQueueProperties.shardsOf(queue))
+            .flatMap(shard -> reactiveRedisTemplate.execute(
+                    EXPIRE_PROCEED_SCRIPT,
+                    List.of(USER_QUEUE_PROCEED_KEY.formatted(slot(queue, shard)), USER_QUEUE_EVENTS_KEY.formatted(slot(queue, shard))),
+                    List.of(String.valueOf(proceedCutoff()), String.valueOf(userQueueProperties.proceed().sweepBatchSize()), eventMaxLength())
+                )
+                .next())
+            .reduce(0L, Long::sum)
+            .flatMap(expired -> unregisterProceedQueueIfEmpty(queue).thenReturn(expired));
+    }
+
+    // 모든 shard / 레인의 대기 큐, 접속 허용 큐 크기, 누적 허용 수
+    @Override
+    public Mono<QueueStats> stats(final String queue) {
+        return Flux.range(0, userQueueProperties.shardsOf(queue))
+            .flatMap(shard -> {
+                var slot = slot(queue, shard);
+                return reactiveRedisTemplate.execute(
+                        QUEUE_STATS_SCRIPT,
+                        Stream.concat(
+                                Stream.of(USER_QUEUE_PROCEED_KEY.formatted(slot), USER_QUEUE_ADMITTED_KEY.formatted(slot)),
+                                waitKeys(slot).stream()
+                            )
+                            .toList(),
+                        List.of()
+                    )
+                    .next()
+                    .map(result -> new QueueStats((Long) result.get(0), (Long) result.get(1), (Long) result.get(2)));
+            })
+            .reduce((left, right) -> new QueueStats(
+                left.waitSize() + right.waitSize(),
+                left.proceedSize() + right.proceedSize(),
+                left.admittedCount() + right.admittedCount()
+            ));
+    }
+
+    @Override
+    public Mono<Long> proceedSize(final String queue) {
+        return Flux.range(0, userQueueProperties.shardsOf(queue))
+            .flatMap(shard -> reactiveRedisTemplate.opsForZSet().size(USER_QUEUE_PROCEED_KEY.formatted(slot(queue, shard))))
+            .reduce(0L, Long::sum);
+    }
+
+    // keyspace 전체를 SCAN 하지 않고 활성 큐 목록만 조회
+    @Override
+    public Flux<String> activeQueues() {
+        return reactiveRedisTemplate.opsForSet().members(USER_QUEUE_REGISTRY_KEY);
+    }
+
+    @Override
+    public Flux<String> proceedQueues() {
+        return reactiveRedisTemplate.opsForSet().members(USER_QUEUE_PROCEED_REGISTRY_KEY);
+    }
+
+    // 서버 시작 시 한 번, 큐 목록 없이 쌓여 있던 대기 큐 / 접속 허용 큐를 목록에 추가 (실패해도 이후 등록 / 허용 시 추가됨)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfillRegistries()
+            .timeout(BACKFILL_TIMEOUT)
+            .doOnNext(count -> log.info("backfilled {} queues into the queue registries", count))
+            .onErrorResume(e -> {
+                log.warn("failed to backfill the queue registries", e);
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    // users:queue:*:wait* / users:queue:*:proceed key 를 SCAN 해서 큐 목록에 추가하고, 추가한 큐 수 리턴
+    public Mono<Long> backfillRegistries() {
+        return Flux.concat(
+                backfillRegistry("users:queue:*:wait*", USER_QUEUE_REGISTRY_KEY, this::waitKeySlot),
+                backfillRegistry("users:queue:*:proceed", USER_QUEUE_PROCEED_REGISTRY_KEY, key -> slotOf(key, ":proceed"))
+            )
+            .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> backfillRegistry(final String pattern, final String registryKey, final Function<String, String> slotOfKey) {
+        return reactiveRedisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(1000).build())
+            .mapNotNull(slotOfKey)
+            .mapNotNull(this::queueOf)
+            .distinct()
+            .buffer(1000)
+            .concatMap(queues -> reactiveRedisTemplate.opsForSet().add(registryKey, queues.toArray(String[]::new)))
+            .reduce(0L, Long::sum);
+    }
+
+    // 레인 별 대기 큐 key 의 slot (다른 key 면 null)
+    private String waitKeySlot(final String key) {
+        for (var lane : userQueueProperties.laneNames()) {
+            var slot = slotOf(key, GENERAL_LANE.equals(lane) ? ":wait" : ":wait:" + lane);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    // users:queue:%s{suffix} key 의 slot (다른 key 면 null)
+    private static String slotOf(final String key, final String suffix) {
+        var prefix = "users:queue:";
+        return key.startsWith(prefix) && key.endsWith(suffix) && key.length() > prefix.length() + suffix.length()
+            ? key.substring(prefix.length(), key.length() - suffix.length())
+            : null;
+    }
+
+    // slot 이름에서 큐 이름 (hash tag / shard 번호 제거, 현재 설정과 맞지 않는 slot 이면 null)
+    private String queueOf(final String slot) {
+        var name = slot;
+        if (userQueueProperties.cluster().hashTags()) {
+            if (!name.startsWith("{") || !name.endsWith("}")) {
+                return null;
+            }
+            name = name.substring(1, name.length() - 1);
+        }
+        var separator = name.lastIndexOf('#');
+        if (separator > 0) {
+            var queue = name.substring(0, separator);
+            var shard = name.substring(separator + 1);
+            if (userQueueProperties.shardsOf(queue) > 1 && shard.chars().allMatch(Character::isDigit) && !shard.isEmpty()) {
+                return queue;
+            }
+        }
+        return slot.equals(slot(name, 0)) ? name : null;
+    }
+
+    // approximate 모드는 shard 를 나누지 않은 큐에서만 사용
+    @Override
+    public Mono<Long> sequenceOf(final String queue, final Long userId) {
+        return userIdRedisTemplate.opsForZSet()
+            .score(USER_QUEUE_WAIT_KEY.formatted(slot(queue, 0)), userId)
+            .map(Double::longValue);
+    }
+
+    @Override
+    public Mono<Long> admittedCount(final String queue) {
+        return reactiveRedisTemplate.opsForValue()
+            .get(USER_QUEUE_ADMITTED_KEY.formatted(slot(queue, 0)))
+            .map(Long::parseLong)
+            .defaultIfEmpty(0L);
+    }
+
+    // 등록 / 허용 / 만료 이벤트를 stream 에 기록하는지 (queue.events.enabled)
+    public boolean eventsEnabled() {
+        return userQueueProperties.events().enabled();
+    }
+
+    // shard 순서대로의 이벤트 stream key
+    public List<String> eventStreamKeys(final String queue) {
+        return IntStream.range(0, userQueueProperties.shardsOf(queue))
+            .mapToObj(shard -> USER_QUEUE_EVENTS_KEY.formatted(slot(queue, shard)))
+            .toList();
+    }
+
+    // 사용자를 shard 별로 나눠서 조회하고, 결과를 요청 순서대로 다시 합침 (shard 간에는 동시에 조회)
+    private <T> Flux<T> perShard(final String queue, final List<Long> userIds, final BiFunction<Integer, List<Long>, Mono<List<T>>> call) {
+        if (userQueueProperties.shardsOf(queue) == 1) {
+            return call.apply(0, userIds).flatMapIterable(results -> results);
+        }
+
+        Map<Integer, List<Long>> userIdsByShard = userIds.stream()
+            .collect(Collectors.groupingBy(userId -> shardOf(queue, userId), LinkedHashMap::new, Collectors.toList()));
+        return Flux.fromIterable(userIdsByShard.entrySet())
+            .flatMap(entry -> call.apply(entry.getKey(), entry.getValue()).map(results -> Map.entry(entry.getKey(), results)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .flatMapIterable(resultsByShard -> {
+                Map<Integer, Iterator<T>> iterators = new LinkedHashMap<>();
+                resultsByShard.forEach((shard, results) -> iterators.put(shard, results.iterator()));
+                return userIds.stream()
+                    .map(userId -> iterators.get(shardOf(queue, userId)).next())
+                    .toList();
+            });
+    }
+
+    // shard 안에서의 순번에 다른 shard 에서 먼저 등록된 같은 레인의 대기자 수를 더해서 1부터 시작하는 순번으로 변환 (없으면 -1)
+    private Mono<long[]> mergeRanks(final String queue, final int shard, final List<ShardRank> ranks) {
+        var merged = ranks.stream()
+            .mapToLong(rank -> rank.rank() >= 0 ? rank.rank() + 1 : -1L)
+            .toArray();
+        var shards = userQueueProperties.shardsOf(queue);
+        var waiting = ranks.stream().filter(rank -> rank.rank() >= 0).toList();
+        if (shards == 1 || waiting.isEmpty()) {
+            return Mono.just(merged);
+        }
+
+        var scores = waiting.stream()
+            .flatMap(rank -> Stream.of(String.valueOf(rank.lane()), String.valueOf(rank.score())))
+            .toList();
+        return Flux.range(0, shards)
+            .filter(other -> other != shard)
+            .flatMap(other -> {
+                // 같은 score 는 앞 번호 shard 가 먼저 허용되므로 (planAdmission), 앞 번호 shard 의 같은 score 대기자도 앞 순번
+                var args = Stream.concat(Stream.of(other < shard ? "1" : "0"), scores.stream()).toList();
+                return reactiveRedisTemplate.execute(COUNT_BEFORE_SCRIPT, waitKeys(slot(queue, other)), args).next();
+            })
+            .doOnNext(counts -> {
+                var index = 0;
+                for (int i = 0; i < merged.length; i++) {
+                    if (merged[i] > 0) {
+                        merged[i] += (Long) counts.get(index++);
+                    }
+                }
+            })
+            .then(Mono.just(merged));
+    }
+
+    // 스크립트 밖에서 관리하는 활성 큐 목록에 추가 (cluster hash tag / shard 사용 시)
+    private Mono<Void> registerQueue(final String queue, final List<Registration> results) {
+        if (scriptManagesRegistry(queue) || results.stream().noneMatch(Registration::registered)) {
+            return Mono.empty();
+        }
+        return reactiveRedisTemplate.opsForSet().add(USER_QUEUE_REGISTRY_KEY, queue).then();
+    }
+
+    // 모든 shard 의 대기자가 빠진 큐를 활성 큐 목록에서 제거, 제거하는 사이 등록된 사용자가 있으면 다시 추가
+    private Mono<Void> unregisterQueueIfEmpty(final String queue) {
+        return reactiveRedisTemplate.opsForSet().remove(USER_QUEUE_REGISTRY_KEY, queue)
+            .then(stats(queue))
+            .filter(stats -> stats.waitSize() > 0)
+            .flatMap(stats -> reactiveRedisTemplate.opsForSet().add(USER_QUEUE_REGISTRY_KEY, queue))
+            .then();
+    }
+
+    // 접속 허용 사용자가 모두 만료된 큐를 목록에서 제거, 제거하는 사이 허용된 사용자가 있으면 다시 추가
+    private Mono<Void> unregisterProceedQueueIfEmpty(final String queue) {
+        return proceedSize(queue)
+            .filter(size -> size == 0)
+            .flatMap(empty -> reactiveRedisTemplate.opsForSet().remove(USER_QUEUE_PROCEED_REGISTRY_KEY, queue))
+            .flatMap(removed -> proceedSize(queue))
+            .filter(size -> size > 0)
+            .flatMap(size -> reactiveRedisTemplate.opsForSet().add(USER_QUEUE_PROCEED_REGISTRY_KEY, queue))
+            .then();
+    }
+
+    // 큐(shard) 별 key 에 들어갈 이름, cluster 에서는 같은 큐(shard)의 key 가 같은 slot 에 들어가도록 hash tag 로 묶음
+    private String slot(final String queue, final int shard) {
+        var name = userQueueProperties.shardsOf(queue) > 1 ? queue + "#" + shard : queue;
+        return userQueueProperties.cluster().hashTags() ? "{" + name + "}" : name;
+    }
+
+    // 사용자가 등록되는 shard (같은 사용자는 항상 같은 shard)
+    private int shardOf(final String queue, final Long userId) {
+        return (int) Math.floorMod(userId, (long) userQueueProperties.shardsOf(queue));
+    }
+
+    // 활성 큐 목록이 큐 key 와 같은 slot / 노드에 있고, 큐의 대기자가 한 스크립트에서 모두 보이는 경우에만 스크립트 안에서 갱신
+    private boolean scriptManagesRegistry(final String queue) {
+        return !userQueueProperties.cluster().hashTags() && userQueueProperties.shardsOf(queue) == 1;
+    }
+
+    private String waitKey(final String slot, final String lane) {
+        return GENERAL_LANE.equals(lane) ? USER_QUEUE_WAIT_KEY.formatted(slot) : USER_QUEUE_LANE_WAIT_KEY.formatted(slot, lane);
+    }
+
+    // general 레인부터 설정 순서대로의 레인 별 대기 큐 key
+    private List<String> waitKeys(final String slot) {
+        return userQueueProperties.laneNames().stream()
+            .map(lane -> waitKey(slot, lane))
+            .toList();
+    }
+
+    // 스크립트에 전달할 이벤트 stream 최대 길이 (0: 기록하지 않음)
+    private String eventMaxLength() {
+        var events = userQueueProperties.events();
+        return String.valueOf(events.enabled() ? events.maxLength() : 0L);
+    }
+
+    private long proceedKeyTtlSeconds() {
+        return sessionWindowSeconds() + PROCEED_KEY_GRACE.toSeconds();
+    }
+
+    private long sessionWindowSeconds() {
+        return userQueueProperties.proceed().sessionWindow().toSeconds();
+    }
+
+    // 이 시각 이전에 허용된 사용자는 만료된 것으로 간주
+    private long proceedCutoff() {
+        return Instant.now().getEpochSecond() - sessionWindowSeconds();
+    }
+
+    // shard 안에서의 0부터 시작하는 순번 (없으면 -1), 레인 번호, score
+    private record ShardRank(long rank, int lane, long score) {
+    }
+
+    // shard 에 남은 대기자 수, 허용된 사용자
+    private record ShardAdmission(long remaining, List<Long> userIds) {
+    }
+
+    // shard 의 레인 별 대기자 수, 레인 별 앞쪽 대기자의 score
+    private record ShardHead(int shard, long[] waiting, long[][] scores) {
+    }
+
+    // 허용 순서를 정할 대기자의 score 와 shard
+    private record WaitingHead(long score, int shard) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.queuingsystemflow.store;
+
+public record Registration(
+    Long userId,
+    boolean registered, // 신규 등록 여부 (false: 이미 등록된 사용자)
+    Long rank
+) {
+}
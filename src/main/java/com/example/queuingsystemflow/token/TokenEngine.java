@@ -0,0 +1,154 @@
+package com.example.queuingsystemflow.token;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * 대기열 통과 토큰 생성 / 검증
+ * - secret 이 없으면 기존과 동일한 SHA-256("user-queue-{queue}-{userId}") 토큰
+ * - secret 이 있으면 HMAC-SHA256 + 만료 시각을 포함한 "{만료 시각}.{hmac}" 토큰 (형식을 알아도 위조 불가, ttl 이후 만료)
+ * - digest / mac 인스턴스는 스레드마다 재사용하고, hex 변환은 lookup table 로 처리해서 호출마다 생기는 할당을 최소화
+ * - 검증은 hex 를 byte 로 되돌린 뒤 MessageDigest.isEqual 로 비교 (비교 시간으로 토큰을 유추할 수 없도록)
+ * - 해시 계산은 netty event loop 대신 코어 수 만큼의 전용 스케쥴러에서 실행 (scheduler())
+ */
+@Component
+public class TokenEngine {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> newInstance(() -> MessageDigest.getInstance("SHA-256")));
+    private final ThreadLocal<Mac> macs;
+    private final Scheduler scheduler = Schedulers.newParallel("token", Runtime.getRuntime().availableProcessors(), true);
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public TokenEngine(final UserQueueProperties userQueueProperties) {
+        this(userQueueProperties.token().secret(), userQueueProperties.token().ttl(), Clock.systemUTC());
+    }
+
+    TokenEngine(final String secret, final Duration ttl, final Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        if (secret == null || secret.isEmpty()) {
+            this.macs = null;
+        } else {
+            var key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+            this.macs = ThreadLocal.withInitial(() -> newInstance(() -> {
+                var mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            }));
+        }
+    }
+
+    // 토큰 생성 / 검증을 실행할 스케쥴러 (스레드가 고정되므로 스레드 별 digest / mac 인스턴스도 재사용됨)
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    @PreDestroy
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    public String generate(final String queue, final Long userId) {
+        if (macs == null) {
+            return toHex(sha256(queue, userId));
+        }
+
+        var expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        return expiresAt + "." + toHex(hmac(queue, userId, expiresAt));
+    }
+
+    public boolean verify(final String queue, final Long userId, final String token) {
+        if (token == null) {
+            return false;
+        }
+
+        if (macs == null) {
+            var actual = fromHex(token, 0);
+            return actual != null && MessageDigest.isEqual(sha256(queue, userId), actual);
+        }
+
+        var separator = token.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(token, 0, separator, 10);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (expiresAt < clock.instant().getEpochSecond()) {
+            return false; // 만료된 토큰
+        }
+
+        var actual = fromHex(token, separator + 1);
+        return actual != null && MessageDigest.isEqual(hmac(queue, userId, expiresAt), actual);
+    }
+
+    private byte[] sha256(final String queue, final Long userId) {
+        return digests.get().digest(("user-queue-" + queue + "-" + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] hmac(final String queue, final Long userId, final long expiresAt) {
+        return macs.get().doFinal(("user-queue-" + queue + "-" + userId + "-" + expiresAt).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toHex(final byte[] bytes) {
+        var chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    // 대소문자 구분 없이 hex -> byte 변환, 형식이 맞지 않으면 null
+    private static byte[] fromHex(final String hex, final int offset) {
+        var length = hex.length() - offset;
+        if (length <= 0 || length % 2 != 0) {
+            return null;
+        }
+
+        var bytes = new byte[length / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            var high = Character.digit(hex.charAt(offset + i * 2), 16);
+            var low = Character.digit(hex.charAt(offset + i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private static <T> T newInstance(final Factory<T> factory) {
+        try {
+            return factory.create();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+}
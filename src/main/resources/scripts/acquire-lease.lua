@@ -0,0 +1,15 @@
+-- 큐 lease 획득 또는 갱신
+-- KEYS[1]: lease key (users:queue:%s:lease)
+-- ARGV[1]: nodeId
+-- ARGV[2]: lease 유효 시간 (ms)
+-- return: 1 (이 노드가 lease 보유), 0 (다른 노드가 lease 보유)
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+if owner then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
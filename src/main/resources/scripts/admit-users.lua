@@ -0,0 +1,96 @@
+-- 대기 큐에서 count 명을 꺼내 접속 허용 큐로 옮기는 작업을 한 번에 원자적으로 처리
+-- 레인이 여러 개면 smooth weighted round robin 으로 레인 별 허용 수를 나누고, 대기자가 없는 레인의 몫은 다른 레인이 가져감
+-- shard 를 나눈 큐는 호출하는 쪽에서 모든 shard 를 합친 대기 순서로 레인 별 허용 수를 정해서 전달 (counts)
+-- KEYS[1]: 접속 허용 큐 key (users:queue:%s:proceed)
+-- KEYS[2]: 활성 큐 목록 key (users:queues, ARGV[3] 이 비어 있으면 사용하지 않음)
+-- KEYS[3]: 누적 허용 수 key (users:queue:%s:admitted)
+-- KEYS[4]: 레인 별 round robin 상태 key (users:queue:%s:lanes)
+-- KEYS[5]: 이벤트 stream key (users:queue:%s:events)
+-- KEYS[6..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- ARGV[1]: 허용할 최대 사용자 수 (counts 이면 사용하지 않음)
+-- ARGV[2]: score (unix timestamp)
+-- ARGV[3]: 대기자가 모두 빠지면 활성 큐 목록에서 제거할 queue (비어 있으면 호출하는 쪽에서 제거, cluster / shard 사용 시)
+-- ARGV[4]: 접속 허용 큐 key 유지 시간 (초, 접속 허용 유지 시간 + 스케쥴러가 만료 처리할 여유)
+-- ARGV[5]: 이벤트 stream 최대 길이 (0 이면 이벤트를 남기지 않음)
+-- ARGV[6]: ARGV[7..] 의 의미 (weights: 레인 별 허용 비중, counts: 레인 별 허용할 사용자 수)
+-- ARGV[7..]: 레인 별 허용 비중 또는 허용할 사용자 수 (KEYS[6..] 와 같은 순서)
+-- return: { 남은 대기자 수, 허용된 userId 목록 (레인 순서, 레인 안에서는 대기 순서대로) ... }
+local count = tonumber(ARGV[1])
+local lanes = #KEYS - 5
+local maxLength = tonumber(ARGV[5])
+local mode = ARGV[6]
+local take = {}
+local waiting = {}
+for i = 1, lanes do
+    waiting[i] = redis.call('ZCARD', KEYS[5 + i])
+    take[i] = 0
+end
+
+if mode == 'counts' then
+    for i = 1, lanes do
+        take[i] = math.min(tonumber(ARGV[6 + i]), waiting[i])
+    end
+elseif lanes == 1 then
+    take[1] = math.min(count, waiting[1])
+else
+    -- 이전 스케쥴에서 이어지는 레인 별 current weight (스케쥴 한 번에 허용하는 수가 적어도 비중이 유지됨)
+    local current = redis.call('HMGET', KEYS[4], unpack(KEYS, 6, #KEYS))
+    for i = 1, lanes do
+        current[i] = tonumber(current[i]) or 0
+    end
+    for _ = 1, count do
+        local selected = nil
+        local total = 0
+        for i = 1, lanes do
+            if waiting[i] > take[i] then
+                local weight = tonumber(ARGV[6 + i])
+                current[i] = current[i] + weight
+                total = total + weight
+                if selected == nil or current[i] > current[selected] then
+                    selected = i
+                end
+            end
+        end
+        if selected == nil then
+            break
+        end
+        current[selected] = current[selected] - total
+        take[selected] = take[selected] + 1
+    end
+    local state = {}
+    for i = 1, lanes do
+        state[#state + 1] = KEYS[5 + i]
+        state[#state + 1] = current[i]
+    end
+    redis.call('HSET', KEYS[4], unpack(state))
+end
+
+local admitted = { 0 }
+local remaining = 0
+for i = 1, lanes do
+    if take[i] > 0 then
+        local popped = redis.call('ZPOPMIN', KEYS[5 + i], take[i])
+        for j = 1, #popped, 2 do
+            redis.call('ZADD', KEYS[1], ARGV[2], popped[j])
+            admitted[#admitted + 1] = popped[j]
+            if maxLength > 0 then
+                redis.call('XADD', KEYS[5], 'MAXLEN', '~', maxLength, '*', 'type', 'admitted', 'userId', popped[j])
+            end
+        end
+    end
+    remaining = remaining + waiting[i] - take[i]
+end
+if #admitted > 1 then
+    -- 더 이상 허용/갱신되지 않고 스케쥴러도 정리하지 않는 접속 허용 큐는 통째로 만료
+    redis.call('EXPIRE', KEYS[1], ARGV[4])
+    redis.call('INCRBY', KEYS[3], #admitted - 1)
+end
+-- 대기자가 모두 빠진 큐는 활성 큐 목록에서 제거
+if remaining == 0 then
+    if ARGV[3] ~= '' then
+        redis.call('SREM', KEYS[2], ARGV[3])
+    end
+    redis.call('DEL', KEYS[4])
+end
+admitted[1] = remaining
+return admitted
@@ -0,0 +1,11 @@
+-- 다른 shard 에서 주어진 score 보다 먼저 등록된 대기자 수를 한 번의 호출로 조회 (shard 를 합친 대기 순번 계산용)
+-- KEYS[1..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- ARGV[1]: 같은 score 의 대기자도 셀지 여부 (1: 조회하는 사용자보다 앞 번호 shard, 진입 허용과 같이 같은 score 는 shard 순)
+-- ARGV[2..]: { 레인 번호, score } 를 펼친 목록
+-- return: 요청 순서대로 같은 레인에서 score 보다 작은 (ARGV[1] 이 1 이면 작거나 같은) 대기자 수
+local max_prefix = ARGV[1] == '1' and '' or '('
+local result = {}
+for i = 2, #ARGV, 2 do
+    result[#result + 1] = redis.call('ZCOUNT', KEYS[tonumber(ARGV[i])], '-inf', max_prefix .. ARGV[i + 1])
+end
+return result
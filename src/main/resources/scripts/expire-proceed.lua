@@ -0,0 +1,19 @@
+-- 접속 허용 유지 시간이 지난 사용자를 최대 count 명까지 접속 허용 큐에서 제거
+-- KEYS[1]: 접속 허용 큐 key (users:queue:%s:proceed)
+-- KEYS[2]: 이벤트 stream key (users:queue:%s:events)
+-- ARGV[1]: 접속 허용 만료 기준 시각 (unix timestamp, 이보다 이전에 허용된 사용자는 만료)
+-- ARGV[2]: 최대 제거 수
+-- ARGV[3]: 이벤트 stream 최대 길이 (0 이면 이벤트를 남기지 않음)
+-- return: 제거된 사용자 수
+local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[1], 'LIMIT', 0, ARGV[2])
+-- unpack 인자 수 제한을 넘지 않도록 나눠서 제거
+for i = 1, #expired, 1000 do
+    redis.call('ZREM', KEYS[1], unpack(expired, i, math.min(i + 999, #expired)))
+end
+local maxLength = tonumber(ARGV[3])
+if maxLength > 0 then
+    for i = 1, #expired do
+        redis.call('XADD', KEYS[2], 'MAXLEN', '~', maxLength, '*', 'type', 'expired', 'userId', expired[i])
+    end
+end
+return #expired
@@ -0,0 +1,14 @@
+-- 레인 별 대기자 수와 앞에서부터 count 명의 score 를 한 번의 호출로 조회 (shard 를 나눈 큐에서 모든 shard 를 합친 대기 순서대로 허용할 사용자 계산용)
+-- KEYS[1..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- ARGV[1]: 레인 별로 조회할 최대 대기자 수
+-- return: 레인 순서대로 { 대기자 수, 조회한 score 수, score ... } 를 펼친 목록
+local result = {}
+for i = 1, #KEYS do
+    local entries = redis.call('ZRANGE', KEYS[i], 0, tonumber(ARGV[1]) - 1, 'WITHSCORES')
+    result[#result + 1] = redis.call('ZCARD', KEYS[i])
+    result[#result + 1] = #entries / 2
+    for j = 2, #entries, 2 do
+        result[#result + 1] = tonumber(entries[j])
+    end
+end
+return result
@@ -0,0 +1,14 @@
+-- 큐 상태 지표를 한 번의 호출로 조회
+-- KEYS[1]: 접속 허용 큐 key (users:queue:%s:proceed)
+-- KEYS[2]: 누적 허용 수 key (users:queue:%s:admitted)
+-- KEYS[3..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- return: { 대기 큐 크기 (모든 레인 합), 접속 허용 큐 크기, 누적 허용 수 }
+local waiting = 0
+for k = 3, #KEYS do
+    waiting = waiting + redis.call('ZCARD', KEYS[k])
+end
+return {
+    waiting,
+    redis.call('ZCARD', KEYS[1]),
+    tonumber(redis.call('GET', KEYS[2]) or '0')
+}
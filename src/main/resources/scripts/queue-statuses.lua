@@ -0,0 +1,24 @@
+-- 여러 사용자의 대기 순번 + 접속 허용 여부를 한 번의 호출로 조회
+-- KEYS[1]: 접속 허용 큐 key (users:queue:%s:proceed)
+-- KEYS[2..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- ARGV[1]: 접속 허용 만료 기준 시각 (unix timestamp, 이보다 이전에 허용된 사용자는 만료)
+-- ARGV[2..]: userId 목록
+-- return: 사용자 순서대로 { 등록된 레인에서 0부터 시작하는 대기 순번 (없으면 -1), 허용 여부 (1/0), 레인 번호 (없으면 0), score (없으면 0) } 를 펼친 목록
+local cutoff = tonumber(ARGV[1])
+local result = {}
+for i = 2, #ARGV do
+    local rank, lane, score = -1, 0, 0
+    for k = 2, #KEYS do
+        local found = redis.call('ZRANK', KEYS[k], ARGV[i])
+        if found then
+            rank, lane, score = found, k - 1, tonumber(redis.call('ZSCORE', KEYS[k], ARGV[i]))
+            break
+        end
+    end
+    local allowedAt = redis.call('ZSCORE', KEYS[1], ARGV[i])
+    result[#result + 1] = rank
+    result[#result + 1] = (allowedAt and tonumber(allowedAt) >= cutoff) and 1 or 0
+    result[#result + 1] = lane
+    result[#result + 1] = score
+end
+return result
@@ -0,0 +1,72 @@
+-- 대기열 등록 + 대기 순번 조회를 한 번의 호출로 원자적으로 처리 (여러 사용자는 요청 순서대로 등록)
+-- KEYS[1]: 활성 큐 목록 key (users:queues, ARGV[3] 이 비어 있으면 사용하지 않음)
+-- KEYS[2]: 대기 순서 sequence key (users:queue:%s:seq)
+-- KEYS[3]: 이벤트 stream key (users:queue:%s:events)
+-- KEYS[4..]: 레인 별 대기 큐 key (users:queue:%s:wait, users:queue:%s:wait:{lane})
+-- ARGV[1]: 정렬 방식 (timestamp, sequence, time-sequence)
+-- ARGV[2]: timestamp 방식의 score (unix timestamp)
+-- ARGV[3]: 활성 큐 목록에 추가할 queue (비어 있으면 호출하는 쪽에서 추가, cluster / shard 사용 시)
+-- ARGV[4]: 등록할 레인 번호 (KEYS[4..] 에서의 순서, 1부터 시작)
+-- ARGV[5]: 이벤트 stream 최대 길이 (0 이면 이벤트를 남기지 않음)
+-- ARGV[6..]: userId 목록
+-- return: 사용자 순서대로 { 신규 등록 여부 (1: 신규, 0: 이미 등록됨), 등록된 레인에서 0부터 시작하는 대기 순번, 레인 번호, score } 를 펼친 목록
+--         (이미 다른 레인에 등록된 사용자는 등록하지 않고 그 레인의 순번 리턴)
+local ordering = ARGV[1]
+local lane = tonumber(ARGV[4])
+local waitKey = KEYS[3 + lane]
+local maxLength = tonumber(ARGV[5])
+
+-- 모든 서버에서 같은 기준으로 증가하는 score (double 로 정확히 표현되는 2^53 미만의 정수)
+local function nextScore()
+    if ordering == 'sequence' then
+        -- 1, 2, 3, ... (큐 별 등록 순번)
+        return redis.call('INCR', KEYS[2])
+    end
+    if ordering == 'time-sequence' then
+        -- redis 서버 시간(µs), 같은 µs 에 등록되면 이전 score + 1 (애플리케이션 서버 간 시계 차이 영향 없음)
+        -- µs 단위이므로 같은 노드의 다른 shard 에 이어서 등록된 사용자도 등록 순서대로 정렬됨 (기존 ms * 1000 + 순번 score 와 같은 단위)
+        -- shard 를 나눈 큐는 shard 마다 다른 redis 노드의 시계를 쓰므로, 노드 간 시계 차이 안에 등록된 shard 사이의 순서는 보장하지 않음
+        local time = redis.call('TIME')
+        local candidate = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local score = math.max(candidate, tonumber(redis.call('GET', KEYS[2]) or '0') + 1)
+        redis.call('SET', KEYS[2], string.format('%.0f', score))
+        return score
+    end
+    -- 초 단위 unix timestamp (같은 초에 등록된 사용자는 userId 문자열 순으로 정렬됨)
+    return tonumber(ARGV[2])
+end
+
+-- 이미 등록된 레인 번호와 0부터 시작하는 대기 순번
+local function findRank(userId)
+    for k = 4, #KEYS do
+        local rank = redis.call('ZRANK', KEYS[k], userId)
+        if rank then
+            return k - 3, rank
+        end
+    end
+    return nil, nil
+end
+
+local result = {}
+local registered = 0
+for i = 6, #ARGV do
+    local added = 0
+    local found, rank = findRank(ARGV[i])
+    if not found then
+        redis.call('ZADD', waitKey, string.format('%.0f', nextScore()), ARGV[i])
+        found, rank = lane, redis.call('ZRANK', waitKey, ARGV[i])
+        added = 1
+        if maxLength > 0 then
+            redis.call('XADD', KEYS[3], 'MAXLEN', '~', maxLength, '*', 'type', 'registered', 'userId', ARGV[i])
+        end
+    end
+    registered = registered + added
+    result[#result + 1] = added
+    result[#result + 1] = rank
+    result[#result + 1] = found
+    result[#result + 1] = tonumber(redis.call('ZSCORE', KEYS[3 + found], ARGV[i]))
+end
+if registered > 0 and ARGV[3] ~= '' then
+    redis.call('SADD', KEYS[1], ARGV[3])
+end
+return result
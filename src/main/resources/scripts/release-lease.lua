@@ -0,0 +1,8 @@
+-- 이 노드가 보유한 lease 인 경우에만 반납
+-- KEYS[1]: lease key (users:queue:%s:lease)
+-- ARGV[1]: nodeId
+-- return: 1 (반납), 0 (보유하지 않음)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,12 @@
+-- 스케쥴러 노드 heartbeat 갱신 + 살아있는 노드 목록 조회
+-- 노드 간 시계 차이의 영향을 받지 않도록 redis 서버 시간을 기준으로 계산
+-- KEYS[1]: 스케쥴러 노드 key (users:scheduler:nodes)
+-- ARGV[1]: nodeId
+-- ARGV[2]: heartbeat 유효 시간 (ms)
+-- return: 살아있는 nodeId 목록
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('ZADD', KEYS[1], now, ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return redis.call('ZRANGE', KEYS[1], 0, -1)
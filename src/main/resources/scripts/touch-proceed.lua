@@ -0,0 +1,14 @@
+-- 만료되지 않은 접속 허용 사용자의 허용 시각을 갱신 (접속 허용 유지 시간 연장)
+-- KEYS[1]: 접속 허용 큐 key (users:queue:%s:proceed)
+-- ARGV[1]: userId
+-- ARGV[2]: score (unix timestamp)
+-- ARGV[3]: 접속 허용 만료 기준 시각 (unix timestamp)
+-- ARGV[4]: 접속 허용 큐 key 유지 시간 (초, 접속 허용 유지 시간 + 스케쥴러가 만료 처리할 여유)
+-- return: 1 (연장), 0 (허용되지 않았거나 이미 만료됨)
+local allowedAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not allowedAt or tonumber(allowedAt) < tonumber(ARGV[3]) then
+    return 0
+end
+redis.call('ZADD', KEYS[1], 'XX', ARGV[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return 1
@@ -0,0 +1,40 @@
+package com.example.queuingsystemflow;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 테스트용 queue.* 설정
+ * - application.yaml 과 같은 방식으로 바인딩하므로 지정하지 않은 항목은 @DefaultValue 값 사용
+ * - 설정 항목이 추가되어도 기존 테스트를 고치지 않도록 UserQueueProperties 생성자 대신 사용
+ */
+public final class TestQueueProperties {
+
+    private TestQueueProperties() {
+    }
+
+    // queue. 이후의 key=value 목록 (ex. "ordering=sequence", "lanes.vip=5"), 같은 형식의 @SpringBootTest(properties) 와 달리 테스트마다 다른 설정 사용 가능
+    public static UserQueueProperties of(final String... properties) {
+        Map<String, String> source = new LinkedHashMap<>(); // 레인 순서 유지
+        for (var property : properties) {
+            var index = property.indexOf('=');
+            source.put("queue." + property.substring(0, index), property.substring(index + 1));
+        }
+
+        try {
+            return new Binder(new MapConfigurationPropertySource(source)).bindOrCreate("queue", UserQueueProperties.class);
+        } catch (BindException e) {
+            // 설정 검증 실패는 UserQueueProperties 가 던진 예외 그대로 전달
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.queuingsystemflow.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionRateControllerTest {
+
+    @Test
+    void tokenBucket() {
+        // 초당 10명, 최대 30명 누적
+        var now = new AtomicLong(0);
+        var controller = new TokenBucketAdmissionRateController(now::get);
+        var policy = new AdmissionPolicy(AdmissionMode.TOKEN_BUCKET, 0, 10, 30, 0, 0, 0, 0);
+
+        assertEquals(30L, controller.nextBatchSize("default", policy, 0)); // 처음에는 burst 만큼 허용
+        controller.onAdmitted("default", policy, 30);
+
+        now.addAndGet(1_500_000_000L); // 1.5초 경과 -> 15개 충전
+        assertEquals(15L, controller.nextBatchSize("default", policy, 0));
+        controller.onAdmitted("default", policy, 5); // 대기자가 5명뿐이라 10개 반환
+
+        now.addAndGet(10_000_000_000L); // 10초 경과 -> burst 까지만 누적
+        assertEquals(30L, controller.nextBatchSize("default", policy, 0));
+    }
+
+    @Test
+    void aimd() {
+        // 목표 접속 허용 큐 크기 100, 초기 허용 수 20
+        var controller = new AimdAdmissionRateController();
+        var policy = new AdmissionPolicy(AdmissionMode.AIMD, 20, 0, 0, 0, 100, 10, 0.5);
+
+        assertEquals(20L, controller.nextBatchSize("default", policy, 0));
+        controller.onAdmitted("default", policy, 20); // window 전체 허용 -> +10
+        assertEquals(30L, controller.nextBatchSize("default", policy, 20));
+        controller.onAdmitted("default", policy, 30); // window 전체 허용 -> +10
+        assertEquals(0L, controller.nextBatchSize("default", policy, 120)); // 목표 초과 -> 허용하지 않고 window 절반 (20)
+        controller.onAdmitted("default", policy, 0);
+        assertEquals(10L, controller.nextBatchSize("default", policy, 90)); // window 20, 남은 자리 10
+        controller.onAdmitted("default", policy, 10); // 남은 자리로 잘린 스케쥴 -> 그대로
+        assertEquals(20L, controller.nextBatchSize("default", policy, 0));
+    }
+
+    @Test
+    void aimdAfterIdle() {
+        // 대기자가 없는 동안에는 window 가 늘어나지 않으므로, 이후 혼잡해지면 바로 줄어듦
+        var controller = new AimdAdmissionRateController();
+        var policy = new AdmissionPolicy(AdmissionMode.AIMD, 20, 0, 0, 0, 100, 10, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(20L, controller.nextBatchSize("default", policy, 0));
+            controller.onAdmitted("default", policy, 0);
+        }
+        assertEquals(0L, controller.nextBatchSize("default", policy, 100)); // 혼잡 -> window 10
+        controller.onAdmitted("default", policy, 0);
+        assertEquals(10L, controller.nextBatchSize("default", policy, 50));
+
+        // window 전체가 계속 허용되어도 targetConcurrency 를 넘지 않음
+        for (int i = 0; i < 100; i++) {
+            var batchSize = controller.nextBatchSize("default", policy, 0);
+            controller.onAdmitted("default", policy, batchSize);
+        }
+        assertEquals(100L, controller.nextBatchSize("default", policy, 0));
+        controller.onAdmitted("default", policy, 100);
+        assertEquals(0L, controller.nextBatchSize("default", policy, 100)); // 혼잡 -> window 50
+        controller.onAdmitted("default", policy, 0);
+        assertEquals(50L, controller.nextBatchSize("default", policy, 0));
+    }
+
+    @Test
+    void rejectStalledPolicies() {
+        // burst / targetConcurrency 없이 모드만 고르면 허용 수가 항상 0 이므로 거절
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionPolicy(AdmissionMode.TOKEN_BUCKET, 100, 10, 0, 0, 0, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionPolicy(AdmissionMode.TOKEN_BUCKET, 100, 0, 30, 0, 0, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionPolicy(AdmissionMode.AIMD, 20, 0, 0, 0, 0, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionPolicy(AdmissionMode.AIMD, 20, 0, 0, 0, 100, 10, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> AdmissionPolicy.fixed(0));
+    }
+
+    @Test
+    void fixed() {
+        var controller = new FixedAdmissionRateController();
+
+        assertEquals(100L, controller.nextBatchSize("default", AdmissionPolicy.fixed(100), 5000));
+    }
+}
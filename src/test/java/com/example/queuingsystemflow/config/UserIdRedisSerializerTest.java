@@ -0,0 +1,38 @@
+package com.example.queuingsystemflow.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdRedisSerializerTest {
+
+    private final UserIdRedisSerializer serializer = UserIdRedisSerializer.INSTANCE;
+
+    @Test
+    void sameBytesAsString() {
+        // 기존 문자열 member 와 같은 bytes
+        for (long userId : new long[]{0L, 7L, 10L, 100L, 123456789L, -42L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            var bytes = serializer.serialize(userId);
+            assertArrayEquals(Long.toString(userId).getBytes(StandardCharsets.US_ASCII), bytes);
+            assertEquals(userId, serializer.deserialize(bytes));
+        }
+    }
+
+    @Test
+    void nullOrEmpty() {
+        assertNull(serializer.serialize(null));
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void invalidUserId() {
+        assertThrows(SerializationException.class, () -> serializer.deserialize("12a".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(SerializationException.class, () -> serializer.deserialize("-".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(SerializationException.class, () -> serializer.deserialize("9223372036854775808".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(SerializationException.class, () -> serializer.deserialize("99999999999999999999".getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.queuingsystemflow.controller;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.dto.BulkRegisterUserResponse;
+import com.example.queuingsystemflow.dto.RegisterUserResponse;
+import com.example.queuingsystemflow.service.AdmittedUserCache;
+import com.example.queuingsystemflow.service.LookupCoalescer;
+import com.example.queuingsystemflow.service.UserQueueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class UserQueueControllerTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    @Autowired
+    private UserQueueService userQueueService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void beforeEach() {
+        ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
+        reactiveConnection.serverCommands().flushAll().block();
+        admittedUserCache.invalidateAll();
+        lookupCoalescer.invalidateAll();
+
+        webTestClient = WebTestClient.bindToApplicationContext(applicationContext).build();
+    }
+
+    @Test
+    void ignoreLaneOfUserRegistration() {
+        // 사용자가 직접 호출하는 등록 API 는 lane 을 받지 않고 general 레인에 등록
+        webTestClient.post()
+            .uri("/api/v1/queue?user_id=100&lane=vip")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(RegisterUserResponse.class)
+            .isEqualTo(new RegisterUserResponse(1L));
+    }
+
+    @Test
+    void rejectLaneWithoutInternalKey() {
+        // general 이외 레인 일괄 등록은 내부 API 키가 없으면 거절 (테스트 설정에는 키가 없음)
+        webTestClient.post()
+            .uri("/api/v1/queue/bulk?lane=vip")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("X-Queue-Internal-Key", "guess")
+            .bodyValue(List.of(100L, 101L))
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.FORBIDDEN)
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("UQ-0004");
+    }
+
+    @Test
+    void registerGeneralLaneWithoutInternalKey() {
+        webTestClient.post()
+            .uri("/api/v1/queue/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(List.of(100L, 101L))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(BulkRegisterUserResponse.class)
+            .isEqualTo(List.of(
+                new BulkRegisterUserResponse(100L, 1L, true),
+                new BulkRegisterUserResponse(101L, 2L, true)
+            ));
+    }
+
+    @Test
+    void touchOnlyWithToken() {
+        // 허용된 사용자라도 토큰 쿠키가 없거나 맞지 않으면 접속 허용 유지 시간을 연장하지 않음
+        var allowedAt = Instant.now().minusSeconds(60).getEpochSecond();
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.allowUser("default", 1L))
+                .then(reactiveRedisTemplate.opsForZSet().add("users:queue:default:proceed", "100", allowedAt)))
+            .expectNext(true)
+            .verifyComplete();
+
+        touch(null);
+        touch("invalid");
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().score("users:queue:default:proceed", "100"))
+            .expectNext((double) allowedAt)
+            .verifyComplete();
+
+        touch(userQueueService.generateToken("default", 100L).block());
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().score("users:queue:default:proceed", "100"))
+            .assertNext(score -> assertTrue(score > allowedAt))
+            .verifyComplete();
+    }
+
+    private void touch(final String token) {
+        var request = webTestClient.get().uri("/api/v1/queue/touch?user_id=100");
+        if (token != null) {
+            request = request.cookie("user-queue-default-token", token);
+        }
+        request.exchange()
+            .expectStatus().isOk()
+            .expectCookie().exists("user-queue-default-token");
+    }
+
+    @Test
+    void acceptOnlyConfiguredInternalKey() {
+        var internalApi = TestQueueProperties.of("internal-api.key=secret").internalApi();
+        assertTrue(internalApi.accepts("secret"));
+        assertFalse(internalApi.accepts("guess"));
+        assertFalse(internalApi.accepts(null));
+
+        // 키를 설정하지 않으면 어떤 값도 받지 않음
+        assertFalse(TestQueueProperties.of().internalApi().accepts(""));
+    }
+}
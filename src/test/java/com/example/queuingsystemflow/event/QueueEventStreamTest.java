@@ -0,0 +1,215 @@
+package com.example.queuingsystemflow.event;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.store.RedisQueueStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class QueueEventStreamTest {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Long> userIdRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisConnectionFactory reactiveRedisConnectionFactory;
+
+    private RedisQueueStore queueStore;
+
+    private QueueEventStream queueEventStream;
+
+    // 비어 있는 redis 에 이벤트 기록 여부를 지정해서 저장소 / 이벤트 API 생성
+    private void setUp(final boolean eventsEnabled) {
+        reactiveRedisTemplate.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        var properties = TestQueueProperties.of(
+            "ordering=sequence",
+            "events.enabled=" + eventsEnabled,
+            "events.max-length=1000"
+        );
+        queueStore = new RedisQueueStore(reactiveRedisTemplate, userIdRedisTemplate, properties);
+        queueEventStream = new QueueEventStream(reactiveRedisConnectionFactory, reactiveRedisTemplate, queueStore);
+    }
+
+    @Test
+    void consumeAndAcknowledge() {
+        // 등록 3명, 허용 2명 -> consumer group 으로 5개 이벤트를 한 번에 받고 확인
+        setUp(true);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L, 102L))
+                .then(queueStore.admit("default", 2L)))
+            .expectNext(List.of(100L, 101L))
+            .verifyComplete();
+
+        var events = queueEventStream.consume("default", "gate", "gate-1", 5).blockFirst(Duration.ofSeconds(10));
+        assertNotNull(events);
+        assertEquals(
+            List.of(QueueEventType.REGISTERED, QueueEventType.REGISTERED, QueueEventType.REGISTERED, QueueEventType.ADMITTED, QueueEventType.ADMITTED),
+            events.stream().map(QueueEvent::type).toList()
+        );
+        assertEquals(List.of(100L, 101L, 102L, 100L, 101L), events.stream().map(QueueEvent::userId).toList());
+
+        StepVerifier.create(queueEventStream.acknowledge("default", "gate", events))
+            .expectNext(5L)
+            .verifyComplete();
+    }
+
+    @Test
+    void redeliverPendingEvents() {
+        // 확인하지 않은 이벤트는 같은 consumer 가 다시 소비를 시작하면 새 이벤트보다 먼저 다시 받음
+        setUp(true);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        var first = queueEventStream.consume("default", "gate", "gate-1", 2).blockFirst(Duration.ofSeconds(10));
+        assertNotNull(first);
+        assertEquals(List.of(100L, 101L), first.stream().map(QueueEvent::userId).toList());
+
+        StepVerifier.create(queueStore.register("default", "general", List.of(102L)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        var redelivered = queueEventStream.consume("default", "gate", "gate-1", 3).blockFirst(Duration.ofSeconds(10));
+        assertNotNull(redelivered);
+        assertEquals(List.of(100L, 101L, 102L), redelivered.stream().map(QueueEvent::userId).toList());
+        assertEquals(first.stream().map(QueueEvent::id).toList(), redelivered.subList(0, 2).stream().map(QueueEvent::id).toList());
+
+        StepVerifier.create(queueEventStream.acknowledge("default", "gate", redelivered))
+            .expectNext(3L)
+            .verifyComplete();
+    }
+
+    @Test
+    void claimIdleEventsOfOtherConsumer() {
+        // 다른 consumer 가 claimMinIdle 동안 확인하지 않은 이벤트는 넘겨 받음
+        setUp(true);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        var abandoned = queueEventStream.consume("default", "gate", "gate-1", 2).blockFirst(Duration.ofSeconds(10));
+        assertNotNull(abandoned);
+
+        // 아직 claimMinIdle 이 지나지 않았으면 넘겨 받지 않음
+        StepVerifier.create(queueEventStream.consume("default", "gate", "gate-2", 2, Duration.ofHours(1)))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(300))
+            .thenCancel()
+            .verify();
+
+        var claimed = queueEventStream.consume("default", "gate", "gate-2", 2, Duration.ZERO).blockFirst(Duration.ofSeconds(10));
+        assertNotNull(claimed);
+        assertEquals(abandoned.stream().map(QueueEvent::id).toList(), claimed.stream().map(QueueEvent::id).toList());
+
+        StepVerifier.create(reactiveRedisTemplate.opsForStream().pending("users:queue:default:events", "gate"))
+            .assertNext(summary -> {
+                assertEquals(2L, summary.getTotalPendingMessages());
+                assertEquals(2L, summary.getPendingMessagesPerConsumer().get("gate-2"));
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void replay() {
+        // consumer group 없이 처음부터 다시 읽기, 이미 등록된 사용자는 이벤트를 남기지 않음
+        setUp(true);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L))
+                .then(queueStore.register("default", "general", List.of(100L))))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        StepVerifier.create(queueEventStream.replay("default", "0").take(2))
+            .assertNext(event -> assertEquals(100L, event.userId()))
+            .assertNext(event -> assertEquals(101L, event.userId()))
+            .verifyComplete();
+
+        StepVerifier.create(reactiveRedisTemplate.opsForStream().size("users:queue:default:events"))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void expiredEvents() {
+        // 접속 허용 유지 시간이 지나 정리된 사용자는 expired 이벤트로 기록
+        setUp(true);
+        var expiredAt = Instant.now().minus(Duration.ofHours(1)).getEpochSecond();
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().add("users:queue:default:proceed", "100", expiredAt)
+                .then(queueStore.expire("default")))
+            .expectNext(1L)
+            .verifyComplete();
+
+        StepVerifier.create(queueEventStream.replay("default", "0").take(1))
+            .assertNext(event -> {
+                assertEquals(QueueEventType.EXPIRED, event.type());
+                assertEquals(100L, event.userId());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void expiredEventsAfterQueueDrains() {
+        // 대기자가 모두 빠져 활성 큐 목록에서 제거된 큐도, 허용된 사용자가 모두 정리될 때까지 expired 이벤트를 기록
+        setUp(true);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L))
+                .then(queueStore.admit("default", 1L)))
+            .expectNext(List.of(100L))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.activeQueues())
+            .verifyComplete();
+        StepVerifier.create(queueStore.proceedQueues())
+            .expectNext("default")
+            .verifyComplete();
+
+        var expiredAt = Instant.now().minus(Duration.ofHours(1)).getEpochSecond();
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().add("users:queue:default:proceed", "100", expiredAt)
+                .then(queueStore.expire("default")))
+            .expectNext(1L)
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.proceedQueues())
+            .verifyComplete();
+        StepVerifier.create(queueEventStream.replay("default", "0").filter(event -> event.type() == QueueEventType.EXPIRED).take(1))
+            .assertNext(event -> assertEquals(100L, event.userId()))
+            .verifyComplete();
+    }
+
+    @Test
+    void disabled() {
+        // queue.events.enabled=false 이면 stream 을 만들지 않음
+        setUp(false);
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L))
+                .then(queueStore.admit("default", 1L))
+                .then(reactiveRedisTemplate.hasKey("users:queue:default:events")))
+            .expectNext(false)
+            .verifyComplete();
+
+        // 소비 / 재생 요청도 stream 을 만들거나 기다리지 않고 바로 실패
+        StepVerifier.create(queueEventStream.consume("default", "gate", "gate-1", 5))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+        StepVerifier.create(queueEventStream.replay("default", "0"))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+        StepVerifier.create(reactiveRedisTemplate.hasKey("users:queue:default:events"))
+            .expectNext(false)
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.queuingsystemflow.metrics;
+
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.admission.AdmissionPolicy;
+import com.example.queuingsystemflow.admission.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueTagsTest {
+
+    private final QueueTags queueTags = new QueueTags(
+        TestQueueProperties.of("shards.hot=2", "metrics.max-active-queues=2"),
+        new AdmissionProperties(AdmissionPolicy.fixed(100L), Map.of("flash-sale", AdmissionPolicy.fixed(10L)))
+    );
+
+    @Test
+    void tagConfiguredQueues() {
+        // 기본 큐, admission.queues, queue.shards 에 설정된 큐는 대기자가 없어도 이름으로 tag
+        assertEquals("default", queueTags.of("default"));
+        assertEquals("flash-sale", queueTags.of("flash-sale"));
+        assertEquals("hot", queueTags.of("hot"));
+        assertEquals(QueueTags.OTHER, queueTags.of("random-1234"));
+    }
+
+    @Test
+    void tagActiveQueuesUpToLimit() {
+        // 설정에 없는 큐는 최대 2개까지, 설정된 큐는 최대 수에 포함하지 않음
+        assertEquals(Set.of("a", "b", "hot"), queueTags.updateActiveQueues(Set.of("c", "b", "a", "hot")));
+        assertEquals("a", queueTags.of("a"));
+        assertEquals(QueueTags.OTHER, queueTags.of("c"));
+
+        // 이미 tag 하던 큐는 유지하고, 빠진 큐의 자리를 새 큐가 채움
+        assertEquals(Set.of("b", "c"), queueTags.updateActiveQueues(Set.of("d", "c", "b")));
+        assertEquals(QueueTags.OTHER, queueTags.of("a"));
+        assertEquals(QueueTags.OTHER, queueTags.of("d"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.queuingsystemflow.scheduler;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.admission.AdmissionPolicy;
+import com.example.queuingsystemflow.admission.AdmissionProperties;
+import com.example.queuingsystemflow.admission.AdmissionRateLimiter;
+import com.example.queuingsystemflow.admission.FixedAdmissionRateController;
+import com.example.queuingsystemflow.metrics.QueueMetrics;
+import com.example.queuingsystemflow.metrics.QueueTags;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.service.AdmittedUserCache;
+import com.example.queuingsystemflow.service.TestUserQueueService;
+import com.example.queuingsystemflow.service.UserQueueService;
+import com.example.queuingsystemflow.store.InMemoryQueueStore;
+import com.example.queuingsystemflow.token.TokenEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class UserQueueSchedulerTest {
+
+    private static final Duration LEASE_TTL = Duration.ofMillis(500);
+
+    @Autowired
+    private UserQueueService userQueueService;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private QueueTags queueTags;
+
+    @Autowired
+    private TokenEngine tokenEngine;
+
+    @BeforeEach
+    public void beforeEach() {
+        // 각 단위 테스트 시작 전 데이터 전부 삭제
+        reactiveRedisTemplate.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+    }
+
+    @Test
+    void allowUserOnlyOnceAcrossNodes() {
+        // 두 노드가 동시에 스케쥴을 돌려도, 큐마다 한 노드만 허용 -> 큐마다 2명씩만 허용
+        var nodeA = scheduler("node-a");
+        var nodeB = scheduler("node-b");
+        nodeA.allowUserOfOwnedQueues().blockLast(); // 큐가 없는 상태에서 두 노드의 heartbeat 등록
+        nodeB.allowUserOfOwnedQueues().blockLast();
+        registerUsers(List.of("q1", "q2", "q3", "q4", "q5", "q6", "q7", "q8"), 5);
+
+        var allowedByB = allowedByQueue(nodeB);
+        var allowedByA = allowedByQueue(nodeA);
+
+        assertEquals(8, allowedByA.size() + allowedByB.size());
+        assertTrue(allowedByA.keySet().stream().noneMatch(allowedByB::containsKey));
+        assertTrue(allowedByA.values().stream().allMatch(allowed -> allowed == 2L));
+        assertTrue(allowedByB.values().stream().allMatch(allowed -> allowed == 2L));
+    }
+
+    @Test
+    void allowUserOfMemoryStoreOnEveryNode() {
+        // queue.store=memory 면 서버마다 대기열이 따로 있으므로, 같은 큐 이름이어도 노드마다 lease 없이 자신의 대기자를 허용
+        var properties = TestQueueProperties.of("coalescing.ttl=0s");
+        var serviceA = memoryQueueService(properties);
+        var serviceB = memoryQueueService(properties);
+        var nodeA = scheduler("node-a", serviceA);
+        var nodeB = scheduler("node-b", serviceB);
+        serviceA.registerWaitQueueBulk("default", Flux.range(0, 5).map(Long::valueOf)).blockLast();
+        serviceB.registerWaitQueueBulk("default", Flux.range(0, 5).map(Long::valueOf)).blockLast();
+
+        assertEquals(Map.of("default", 2L), allowedByQueue(nodeA));
+        assertEquals(Map.of("default", 2L), allowedByQueue(nodeB));
+
+        // redis 에 heartbeat / lease 를 남기지 않음
+        StepVerifier.create(reactiveRedisTemplate.keys("users:*"))
+            .verifyComplete();
+    }
+
+    @Test
+    void shardQueuesAcrossNodes() {
+        // 큐가 여러 노드에 나눠서 배정되어야 함
+        var nodes = List.of("node-a", "node-b");
+        var queues = Flux.range(0, 20).map(i -> "q" + i).collectList().block();
+
+        var ownedByA = queues.stream().filter(queue -> "node-a".equals(UserQueueScheduler.ownerOf(queue, nodes))).count();
+
+        assertTrue(ownedByA > 0 && ownedByA < queues.size());
+    }
+
+    @Test
+    void failoverWhenNodeStops() throws InterruptedException {
+        // node-a 만 살아있는 동안에는 node-a 가 모든 큐를 담당
+        var nodeA = scheduler("node-a");
+        var nodeB = scheduler("node-b");
+        registerUsers(List.of("default"), 10);
+
+        assertEquals(Map.of("default", 2L), allowedByQueue(nodeA));
+
+        // node-a 가 죽은 뒤 leaseTtl 이 지나면 node-b 가 큐를 넘겨 받음
+        Thread.sleep(LEASE_TTL.multipliedBy(2).toMillis());
+        assertEquals(Map.of("default", 2L), allowedByQueue(nodeB));
+
+        StepVerifier.create(userQueueService.getRank("default", 4L))
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void skipOverlappingSchedule() throws InterruptedException {
+        // 이전 스케쥴이 끝나기 전에 호출된 스케쥴은 건너뜀 -> 한 번만 허용
+        var nodeA = scheduler("node-a");
+        registerUsers(List.of("default"), 10);
+
+        nodeA.scheduleAllowUser();
+        nodeA.scheduleAllowUser();
+        Thread.sleep(LEASE_TTL.toMillis());
+
+        StepVerifier.create(userQueueService.getProceedSize("default"))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    private UserQueueScheduler scheduler(final String nodeId) {
+        return scheduler(nodeId, userQueueService);
+    }
+
+    private UserQueueScheduler scheduler(final String nodeId, final UserQueueService userQueueService) {
+        var admissionProperties = new AdmissionProperties(AdmissionPolicy.fixed(2L), Map.of()); // 스케쥴마다 큐 별 2명씩 허용
+        var admissionRateLimiter = new AdmissionRateLimiter(userQueueService, admissionProperties, List.of(new FixedAdmissionRateController()));
+        var queueMetrics = new QueueMetrics(userQueueService, queueTags, new SimpleMeterRegistry());
+        return new UserQueueScheduler(reactiveRedisTemplate, userQueueService, new SchedulerProperties(true, nodeId, LEASE_TTL, 16), admissionRateLimiter, queueMetrics);
+    }
+
+    private UserQueueService memoryQueueService(final UserQueueProperties properties) {
+        return TestUserQueueService.create(properties, new InMemoryQueueStore(properties), tokenEngine, new AdmittedUserCache(properties));
+    }
+
+    private void registerUsers(final List<String> queues, final int count) {
+        Flux.fromIterable(queues)
+            .concatMap(queue -> Flux.range(0, count).concatMap(userId -> userQueueService.registerWaitQueue(queue, (long) userId)))
+            .blockLast();
+    }
+
+    private Map<String, Long> allowedByQueue(final UserQueueScheduler scheduler) {
+        return scheduler.allowUserOfOwnedQueues()
+            .collectMap(Tuple2::getT1, Tuple2::getT2)
+            .block();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.store.RedisQueueStore;
+import com.example.queuingsystemflow.token.TokenEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class ApproximateRankTest {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Long> userIdRedisTemplate;
+
+    @Autowired
+    private TokenEngine tokenEngine;
+
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    private UserQueueService userQueueService;
+
+    @BeforeEach
+    public void beforeEach() {
+        ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
+        reactiveConnection.serverCommands().flushAll().subscribe();
+        admittedUserCache.invalidateAll();
+        lookupCoalescer.invalidateAll();
+
+        userQueueService = createUserQueueService(Duration.ZERO);
+    }
+
+    @Test
+    void getApproximateRank() {
+        // 등록 순번 - 누적 허용 수
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.registerWaitQueue("default", 102L))
+                .then(userQueueService.getRank("default", 102L)))
+            .expectNext(3L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("default", 2L)
+                .then(userQueueService.getRank("default", 102L)))
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void getApproximateRankOfAdmittedUser() {
+        // 허용된 사용자와 등록되지 않은 사용자는 -1
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.getRank("default", 100L)))
+            .expectNext(1L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("default", 1L)
+                .then(userQueueService.getRank("default", 100L)))
+            .expectNext(-1L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getRank("default", 200L))
+            .expectNext(-1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void getApproximateRankAfterRegisterAgain() {
+        // 허용 후 다시 등록된 사용자는 새 등록 순번 기준
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.allowUser("default", 1L))
+                .then(userQueueService.registerWaitQueue("default", 100L))
+                .then(userQueueService.getRank("default", 100L)))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shareAdmittedCountSnapshot() {
+        // snapshotTtl 동안은 이전 누적 허용 수를 공유하므로 실제보다 클 수 있음
+        userQueueService = createUserQueueService(Duration.ofMinutes(1));
+
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.getRank("default", 101L)))
+            .expectNext(2L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("default", 1L)
+                .then(userQueueService.getRank("default", 101L)))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void approximateRankRequiresSequenceOrdering() {
+        assertThrows(IllegalArgumentException.class, () -> properties("time-sequence", Duration.ZERO));
+    }
+
+    private UserQueueService createUserQueueService(final Duration snapshotTtl) {
+        var properties = properties("sequence", snapshotTtl);
+        return TestUserQueueService.create(
+            properties,
+            new RedisQueueStore(reactiveRedisTemplate, userIdRedisTemplate, properties),
+            tokenEngine,
+            admittedUserCache
+        );
+    }
+
+    private static UserQueueProperties properties(final String ordering, final Duration snapshotTtl) {
+        return TestQueueProperties.of(
+            "ordering=" + ordering,
+            "rank.mode=approximate",
+            "rank.snapshot-ttl=" + snapshotTtl.toMillis() + "ms",
+            "coalescing.ttl=0s"
+        );
+    }
+}
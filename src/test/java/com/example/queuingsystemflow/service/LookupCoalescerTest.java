@@ -0,0 +1,88 @@
+package com.example.queuingsystemflow.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupCoalescerTest {
+
+    @Test
+    void shareInFlightLookup() {
+        // 조회 중인 동안 들어온 같은 사용자의 조회는 하나의 호출을 공유
+        var coalescer = new LookupCoalescer(Duration.ZERO, 100);
+        var calls = new AtomicInteger();
+
+        var first = coalescer.share(LookupCoalescer.RANK, "default", 100L,
+            () -> Mono.fromCallable(calls::incrementAndGet).delayElement(Duration.ofMillis(100)));
+        var second = coalescer.share(LookupCoalescer.RANK, "default", 100L,
+            () -> Mono.fromCallable(calls::incrementAndGet));
+
+        StepVerifier.create(Mono.zip(first, second))
+            .assertNext(tuple -> {
+                assertEquals(1, tuple.getT1());
+                assertEquals(1, tuple.getT2());
+            })
+            .verifyComplete();
+        assertEquals(1, calls.get());
+
+        // ttl 이 0 이면 완료된 결과는 재사용하지 않음
+        StepVerifier.create(first)
+            .expectNext(2)
+            .verifyComplete();
+    }
+
+    @Test
+    void reuseResultWithinTtl() {
+        var coalescer = new LookupCoalescer(Duration.ofMinutes(1), 100);
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(coalescer.share(LookupCoalescer.RANK, "default", 100L, () -> Mono.fromCallable(calls::incrementAndGet)))
+            .expectNext(1)
+            .verifyComplete();
+
+        StepVerifier.create(coalescer.share(LookupCoalescer.RANK, "default", 100L, () -> Mono.fromCallable(calls::incrementAndGet)))
+            .expectNext(1)
+            .verifyComplete();
+
+        // 다른 조회 / 다른 사용자는 공유하지 않음
+        StepVerifier.create(coalescer.share(LookupCoalescer.ALLOWED, "default", 100L, () -> Mono.fromCallable(calls::incrementAndGet)))
+            .expectNext(2)
+            .verifyComplete();
+
+        StepVerifier.create(coalescer.share(LookupCoalescer.RANK, "default", 101L, () -> Mono.fromCallable(calls::incrementAndGet)))
+            .expectNext(3)
+            .verifyComplete();
+
+        // 결과가 바뀌는 작업 이후에는 다시 조회
+        coalescer.invalidate("default", 100L);
+        StepVerifier.create(coalescer.share(LookupCoalescer.RANK, "default", 100L, () -> Mono.fromCallable(calls::incrementAndGet)))
+            .expectNext(4)
+            .verifyComplete();
+    }
+
+    @Test
+    void doNotShareError() {
+        // 실패한 조회는 공유하지 않고 다음 요청이 다시 조회
+        var coalescer = new LookupCoalescer(Duration.ofMinutes(1), 100);
+        var calls = new AtomicInteger();
+        var lookup = coalescer.share(LookupCoalescer.ALLOWED, "default", 100L, () -> Mono.fromCallable(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("redis unavailable");
+            }
+            return true;
+        }));
+
+        StepVerifier.create(lookup)
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        StepVerifier.create(lookup)
+            .expectNext(true)
+            .verifyComplete();
+    }
+}
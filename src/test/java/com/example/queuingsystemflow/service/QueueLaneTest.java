@@ -0,0 +1,156 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.exception.ApplicationException;
+import com.example.queuingsystemflow.store.RedisQueueStore;
+import com.example.queuingsystemflow.token.TokenEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class QueueLaneTest {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Long> userIdRedisTemplate;
+
+    @Autowired
+    private TokenEngine tokenEngine;
+
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    private UserQueueService userQueueService;
+
+    @BeforeEach
+    public void beforeEach() {
+        ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
+        reactiveConnection.serverCommands().flushAll().subscribe();
+        admittedUserCache.invalidateAll();
+
+        // vip: 100번대, member: 200번대, general: 300번대 사용자
+        var properties = TestQueueProperties.of(
+            "lanes.vip=5",
+            "lanes.member=3",
+            "lanes.general=2",
+            "coalescing.ttl=0s"
+        );
+        userQueueService = TestUserQueueService.create(
+            properties,
+            new RedisQueueStore(reactiveRedisTemplate, userIdRedisTemplate, properties),
+            tokenEngine,
+            admittedUserCache
+        );
+    }
+
+    @Test
+    void getRankInLane() {
+        // 대기 순번은 등록된 레인 안에서의 순번
+        StepVerifier.create(userQueueService.registerWaitQueue("default", "general", 300L)
+                .then(userQueueService.registerWaitQueue("default", "vip", 100L))
+                .then(userQueueService.registerWaitQueue("default", "vip", 101L)))
+            .expectNext(2L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getRank("default", 300L)
+                .zipWith(userQueueService.getRank("default", 101L)))
+            .assertNext(tuple -> {
+                assertEquals(1L, tuple.getT1());
+                assertEquals(2L, tuple.getT2());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void alreadyRegisteredInOtherLane() {
+        // 다른 레인에 이미 등록된 사용자는 등록되지 않고, 기존 레인의 순번 리턴
+        StepVerifier.create(userQueueService.registerWaitQueue("default", "vip", 100L)
+                .then(userQueueService.registerWaitQueue("default", "general", 100L)))
+            .expectError(ApplicationException.class)
+            .verify();
+
+        StepVerifier.create(userQueueService.registerWaitQueue("default", "general", 300L)
+                .then(userQueueService.registerWaitQueueOrGetRank("default", "general", 100L)))
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void unknownLane() {
+        StepVerifier.create(userQueueService.registerWaitQueue("default", "unknown", 100L))
+            .expectError(ApplicationException.class)
+            .verify();
+    }
+
+    @Test
+    void admitUsersByWeight() {
+        // 레인마다 10명씩 대기 중일 때 10명 허용 -> 5 : 3 : 2
+        StepVerifier.create(registerLanes(10, 10, 10)
+                .then(userQueueService.admitUsers("default", 10L)))
+            .assertNext(admitted -> assertEquals(Map.of("vip", 5L, "member", 3L, "general", 2L), countByLane(admitted)))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getQueueStats("default"))
+            .assertNext(stats -> {
+                assertEquals(20L, stats.waitSize());
+                assertEquals(10L, stats.proceedSize());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void admitUsersByWeightAcrossSchedules() {
+        // 한 번에 1명씩 허용해도 이전 스케쥴의 상태가 이어지므로 비중이 유지됨
+        StepVerifier.create(registerLanes(10, 10, 10)
+                .thenMany(Flux.range(0, 10).concatMap(i -> userQueueService.admitUsers("default", 1L)))
+                .flatMapIterable(admitted -> admitted)
+                .collectList())
+            .assertNext(admitted -> assertEquals(Map.of("vip", 5L, "member", 3L, "general", 2L), countByLane(admitted)))
+            .verifyComplete();
+    }
+
+    @Test
+    void admitUsersFromOtherLanesWhenLaneIsEmpty() {
+        // 대기자가 없는 레인의 몫은 다른 레인이 가져가고, 모두 허용되면 활성 큐 목록에서 제거
+        StepVerifier.create(registerLanes(0, 1, 4)
+                .then(userQueueService.admitUsers("default", 10L)))
+            .assertNext(admitted -> assertEquals(Map.of("member", 1L, "general", 4L), countByLane(admitted)))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getActiveQueues())
+            .verifyComplete();
+    }
+
+    private Mono<Void> registerLanes(final int vip, final int member, final int general) {
+        return userQueueService.registerWaitQueueBulk("default", "vip", Flux.range(100, vip).map(Long::valueOf))
+            .thenMany(userQueueService.registerWaitQueueBulk("default", "member", Flux.range(200, member).map(Long::valueOf)))
+            .thenMany(userQueueService.registerWaitQueueBulk("default", "general", Flux.range(300, general).map(Long::valueOf)))
+            .then();
+    }
+
+    private static Map<String, Long> countByLane(final List<Long> userIds) {
+        Function<Long, String> lane = userId -> userId < 200 ? "vip" : userId < 300 ? "member" : "general";
+        return userIds.stream().collect(Collectors.groupingBy(lane, Collectors.counting()));
+    }
+}
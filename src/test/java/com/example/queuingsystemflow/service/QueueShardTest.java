@@ -0,0 +1,201 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.store.RedisQueueStore;
+import com.example.queuingsystemflow.token.TokenEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class QueueShardTest {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Long> userIdRedisTemplate;
+
+    @Autowired
+    private TokenEngine tokenEngine;
+
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    private UserQueueService userQueueService;
+
+    @BeforeEach
+    public void beforeEach() {
+        ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
+        reactiveConnection.serverCommands().flushAll().subscribe();
+        admittedUserCache.invalidateAll();
+
+        // hot 큐는 3개의 shard 로 나누고, 모든 key 를 hash tag 로 묶음 (단일 노드에서도 같은 key 이름으로 동작)
+        var properties = TestQueueProperties.of(
+            "cluster.hash-tags=true",
+            "shards.hot=3",
+            "coalescing.ttl=0s"
+        );
+        userQueueService = TestUserQueueService.create(
+            properties,
+            new RedisQueueStore(reactiveRedisTemplate, userIdRedisTemplate, properties),
+            tokenEngine,
+            admittedUserCache
+        );
+    }
+
+    @Test
+    void hashTaggedKeys() {
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(reactiveRedisTemplate.hasKey("users:queue:{default}:wait")))
+            .expectNext(true)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getActiveQueues())
+            .expectNext("default")
+            .verifyComplete();
+    }
+
+    @Test
+    void registerWaitQueueAcrossShards() {
+        // 등록 순서대로 shard 0, 1, 2, 0, 1 ... 에 나뉘어 등록되어도 대기 순번은 전체 등록 순서
+        StepVerifier.create(Flux.range(100, 6)
+                .concatMap(userId -> userQueueService.registerWaitQueue("hot", userId.longValue()))
+                .collectList())
+            .expectNext(List.of(1L, 2L, 3L, 4L, 5L, 6L))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getRank("hot", 104L))
+            .expectNext(5L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getQueueStatuses("hot", List.of(105L, 100L, 999L)))
+            .assertNext(statuses -> {
+                assertEquals(List.of(105L, 100L, 999L), List.copyOf(statuses.keySet()));
+                assertEquals(6L, statuses.get(105L).rank());
+                assertEquals(1L, statuses.get(100L).rank());
+                assertEquals(-1L, statuses.get(999L).rank());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void registerWaitQueueBulkAcrossShards() {
+        StepVerifier.create(userQueueService.registerWaitQueueBulk("hot", Flux.range(100, 5).map(Long::valueOf))
+                .map(response -> response.rank())
+                .collectList())
+            .expectNext(List.of(1L, 2L, 3L, 4L, 5L))
+            .verifyComplete();
+    }
+
+    @Test
+    void admitUsersAcrossShards() {
+        // 10명 중 4명 허용 -> shard 별로 나눠서 허용하고, 허용 / 대기 수는 shard 를 합쳐서 조회
+        StepVerifier.create(userQueueService.registerWaitQueueBulk("hot", Flux.fromStream(LongStream.range(100, 110).boxed()))
+                .then(userQueueService.allowUser("hot", 4L)))
+            .expectNext(4L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getQueueStats("hot"))
+            .assertNext(stats -> {
+                assertEquals(6L, stats.waitSize());
+                assertEquals(4L, stats.proceedSize());
+                assertEquals(4L, stats.admittedCount());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getProceedSize("hot"))
+            .expectNext(4L)
+            .verifyComplete();
+    }
+
+    @Test
+    void admitUsersInGlobalOrder() {
+        // 앞쪽 대기자가 모두 shard 0 에 있어도 shard 별로 나누지 않고 전체 대기 순서대로 허용
+        StepVerifier.create(Flux.just(99L, 102L, 105L, 100L, 103L, 101L)
+                .concatMap(userId -> userQueueService.registerWaitQueue("hot", userId))
+                .then(userQueueService.allowUser("hot", 3L)))
+            .expectNext(3L)
+            .verifyComplete();
+
+        StepVerifier.create(Flux.just(99L, 102L, 105L).concatMap(userId -> userQueueService.isAllowed("hot", userId)).collectList())
+            .expectNext(List.of(true, true, true))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getQueueStatuses("hot", List.of(100L, 103L, 101L)))
+            .assertNext(statuses -> {
+                assertEquals(1L, statuses.get(100L).rank());
+                assertEquals(2L, statuses.get(103L).rank());
+                assertEquals(3L, statuses.get(101L).rank());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void rankTiesInAdmissionOrder() {
+        // timestamp 정렬처럼 shard 마다 같은 score 가 있으면 진입 허용과 같이 앞 번호 shard 가 앞 순번 (순번이 겹치지 않음)
+        StepVerifier.create(Flux.concat(
+                reactiveRedisTemplate.opsForZSet().add("users:queue:{hot#0}:wait", "102", 1000),
+                reactiveRedisTemplate.opsForZSet().add("users:queue:{hot#1}:wait", "100", 1000),
+                reactiveRedisTemplate.opsForZSet().add("users:queue:{hot#2}:wait", "101", 1000)
+            ).then(userQueueService.getQueueStatuses("hot", List.of(100L, 101L, 102L))))
+            .assertNext(statuses -> {
+                assertEquals(2L, statuses.get(100L).rank());
+                assertEquals(3L, statuses.get(101L).rank());
+                assertEquals(1L, statuses.get(102L).rank());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("hot", 1L)
+                .then(userQueueService.getQueueStatuses("hot", List.of(100L, 101L, 102L))))
+            .assertNext(statuses -> {
+                assertEquals(1L, statuses.get(100L).rank());
+                assertEquals(2L, statuses.get(101L).rank());
+                assertTrue(statuses.get(102L).allowed());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void rejectSequenceOrderingWithShards() {
+        // shard 별 등록 순번은 서로 비교할 수 없으므로 shard 를 합친 순번 / 허용 순서를 계산할 수 없음
+        assertThrows(IllegalArgumentException.class, () -> TestQueueProperties.of("ordering=sequence", "shards.hot=3"));
+    }
+
+    @Test
+    void isAllowedInShard() {
+        StepVerifier.create(userQueueService.registerWaitQueue("hot", 101L)
+                .then(userQueueService.allowUser("hot", 3L))
+                .then(userQueueService.isAllowed("hot", 101L)))
+            .expectNext(true)
+            .verifyComplete();
+    }
+
+    @Test
+    void unregisterQueueWhenAllShardsAreEmpty() {
+        StepVerifier.create(userQueueService.registerWaitQueueBulk("hot", Flux.fromStream(LongStream.range(100, 103).boxed()))
+                .then(userQueueService.allowUser("hot", 2L))
+                .thenMany(userQueueService.getActiveQueues()))
+            .expectNext("hot")
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("hot", 3L)
+                .thenMany(userQueueService.getActiveQueues()))
+            .verifyComplete();
+    }
+}
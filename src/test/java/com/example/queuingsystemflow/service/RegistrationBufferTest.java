@@ -0,0 +1,139 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.exception.ApplicationException;
+import com.example.queuingsystemflow.store.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistrationBufferTest {
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private RegistrationBuffer registrationBuffer;
+
+    @AfterEach
+    void afterEach() {
+        if (registrationBuffer != null) {
+            registrationBuffer.stop();
+        }
+    }
+
+    @Test
+    void flushByInterval() {
+        // batchSize 보다 적게 쌓여도 flushInterval 마다 한 번에 등록
+        registrationBuffer = new RegistrationBuffer(true, 100, 10, Duration.ofMillis(20), Duration.ofHours(1), this::write);
+        registrationBuffer.start();
+
+        StepVerifier.create(Mono.zip(submit(100L), submit(101L), submit(102L)))
+            .assertNext(tuple -> {
+                assertEquals(new Registration(100L, true, 1L), tuple.getT1());
+                assertEquals(new Registration(101L, true, 2L), tuple.getT2());
+                assertEquals(new Registration(102L, true, 3L), tuple.getT3());
+            })
+            .verifyComplete();
+        assertEquals(List.of(List.of(100L, 101L, 102L)), batches);
+    }
+
+    @Test
+    void flushByBatchSize() {
+        // batchSize 만큼 쌓이면 flushInterval 을 기다리지 않고 보냄
+        registrationBuffer = new RegistrationBuffer(true, 100, 2, Duration.ofHours(1), Duration.ofHours(1), this::write);
+        registrationBuffer.start();
+
+        StepVerifier.create(Mono.zip(submit(100L), submit(101L)))
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+        assertEquals(List.of(List.of(100L, 101L)), batches);
+    }
+
+    @Test
+    void rejectWhenFull() {
+        // 버퍼가 가득 차면 redis 로 보내지 않고 바로 거절
+        registrationBuffer = new RegistrationBuffer(true, 2, 10, Duration.ofHours(1), Duration.ofHours(1), this::write);
+        registrationBuffer.start();
+
+        submit(100L).subscribe();
+        submit(101L).subscribe();
+        StepVerifier.create(submit(102L))
+            .expectError(ApplicationException.class)
+            .verify();
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void propagateWriterError() {
+        // batch 등록에 실패하면 batch 에 속한 요청 모두 실패
+        registrationBuffer = new RegistrationBuffer(true, 100, 2, Duration.ofHours(1), Duration.ofHours(1),
+            (queue, lane, userIds) -> Mono.error(new IllegalStateException("redis unavailable")));
+        registrationBuffer.start();
+
+        StepVerifier.create(Flux.merge(submit(100L), submit(101L)))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void continueAfterWriterThrows() {
+        // writer 가 Mono 대신 바로 예외를 던져도 그 batch 만 실패하고, 다음 batch 는 정상 등록
+        var calls = new AtomicInteger();
+        registrationBuffer = new RegistrationBuffer(true, 100, 1, Duration.ofHours(1), Duration.ofHours(1), (queue, lane, userIds) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("redis unavailable");
+            }
+            return write(queue, lane, userIds);
+        });
+        registrationBuffer.start();
+
+        StepVerifier.create(submit(100L))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+        StepVerifier.create(submit(101L))
+            .expectNext(new Registration(101L, true, 1L))
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void removeIdleBuffers() throws InterruptedException {
+        // 요청이 없는 빈 버퍼는 제거되고, 이후 요청은 새 버퍼로 등록
+        registrationBuffer = new RegistrationBuffer(true, 100, 10, Duration.ofMillis(10), Duration.ofMillis(50), this::write);
+        registrationBuffer.start();
+
+        StepVerifier.create(submit(100L))
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+        assertEquals(1, registrationBuffer.bufferCount());
+
+        Thread.sleep(200);
+        assertEquals(0, registrationBuffer.bufferCount());
+
+        StepVerifier.create(submit(101L))
+            .expectNext(new Registration(101L, true, 1L))
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    private Mono<Registration> submit(final Long userId) {
+        return registrationBuffer.submit("default", "general", userId);
+    }
+
+    // batch 안에서의 순서를 대기 순번으로 등록
+    private Mono<List<Registration>> write(final String queue, final String lane, final List<Long> userIds) {
+        batches.add(userIds);
+        return Flux.fromIterable(userIds)
+            .index((index, userId) -> new Registration(userId, true, index + 1))
+            .collectList();
+    }
+}
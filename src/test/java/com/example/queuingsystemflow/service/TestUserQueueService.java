@@ -0,0 +1,40 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.admission.AdmissionPolicy;
+import com.example.queuingsystemflow.admission.AdmissionProperties;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.metrics.QueueTags;
+import com.example.queuingsystemflow.store.QueueStore;
+import com.example.queuingsystemflow.token.TokenEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Map;
+
+/**
+ * 테스트마다 다른 설정의 UserQueueService 생성 (설정에 따라 달라지는 캐시 / 버퍼는 새로 생성)
+ * - 서비스 의존성이 추가되어도 이 클래스만 고치면 됨
+ */
+public final class TestUserQueueService {
+
+    private TestUserQueueService() {
+    }
+
+    public static UserQueueService create(
+        final UserQueueProperties properties,
+        final QueueStore queueStore,
+        final TokenEngine tokenEngine,
+        final AdmittedUserCache admittedUserCache
+    ) {
+        return new UserQueueService(
+            queueStore,
+            properties,
+            tokenEngine,
+            admittedUserCache,
+            new SimpleMeterRegistry(),
+            new RankSnapshotCache(properties),
+            new LookupCoalescer(properties),
+            new RegistrationBuffer(properties, queueStore),
+            new QueueTags(properties, new AdmissionProperties(AdmissionPolicy.fixed(100L), Map.of()))
+        );
+    }
+}
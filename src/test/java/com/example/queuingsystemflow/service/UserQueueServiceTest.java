@@ -1,6 +1,9 @@
 package com.example.queuingsystemflow.service;
 
 import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.dto.BulkRegisterUserResponse;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import com.example.queuingsystemflow.dto.UserRankResponse;
 import com.example.queuingsystemflow.exception.ApplicationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,8 +14,14 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.connection.ReactiveRedisConnection;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -26,11 +35,19 @@ class UserQueueServiceTest {
     @Autowired
     private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
 
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
     @BeforeEach
     public void beforeEach() {
         // 각 단위 테스트 시작 전 데이터 전부 삭제
         ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
         reactiveConnection.serverCommands().flushAll().subscribe();
+        admittedUserCache.invalidateAll();
+        lookupCoalescer.invalidateAll();
     }
 
     @Test
@@ -61,6 +78,80 @@ class UserQueueServiceTest {
             .verify();
     }
 
+    @Test
+    void registerWaitQueueOrGetRank() {
+        // 이미 등록된 사용자는 에러 없이 기존 대기 순번 리턴
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.registerWaitQueueOrGetRank("default", 100L)))
+            .expectNext(1L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.registerWaitQueueOrGetRank("default", 102L))
+            .expectNext(3L)
+            .verifyComplete();
+    }
+
+    @Test
+    void registerWaitQueueBulk() {
+        // 이미 등록된 100번은 기존 대기 순번, 나머지는 요청 순서대로 등록
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .thenMany(userQueueService.registerWaitQueueBulk("default", Flux.just(101L, 100L, 102L))))
+            .expectNext(new BulkRegisterUserResponse(101L, 2L, true))
+            .expectNext(new BulkRegisterUserResponse(100L, 1L, false))
+            .expectNext(new BulkRegisterUserResponse(102L, 3L, true))
+            .verifyComplete();
+    }
+
+    @Test
+    void registerWaitQueueInArrivalOrder() {
+        // 같은 초에 등록되어도 userId 문자열 순("1000" < "200")이 아닌 등록 순서대로 정렬
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 200L)
+                .then(userQueueService.registerWaitQueue("default", 1000L))
+                .then(userQueueService.registerWaitQueue("default", 30L)))
+            .expectNext(3L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getRank("default", 200L))
+            .expectNext(1L)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getRank("default", 1000L))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void getRanks() {
+        // BULK_CHUNK_SIZE 보다 많은 사용자도 요청 순서대로 조회
+        var userIds = Flux.range(1000, 1200).map(Long::valueOf);
+        StepVerifier.create(userQueueService.registerWaitQueueBulk("default", userIds)
+                .thenMany(userQueueService.getRanks("default", Flux.just(1000L, 2199L, 5000L)))
+                .collectList())
+            .assertNext(ranks -> assertEquals(List.of(
+                new UserRankResponse(1000L, 1L),
+                new UserRankResponse(2199L, 1200L),
+                new UserRankResponse(5000L, -1L)
+            ), ranks))
+            .verifyComplete();
+    }
+
+    @Test
+    void getRanksWithDuplicates() {
+        // 같은 사용자를 여러 번 요청해도 요청과 같은 순서 / 같은 수로 응답
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .thenMany(userQueueService.getRanks("default", Flux.just(101L, 100L, 101L, 999L, 100L)))
+                .map(UserRankResponse::rank)
+                .collectList())
+            .expectNext(List.of(2L, 1L, 2L, -1L, 1L))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.getQueueStatuses("default", List.of(101L, 100L, 101L)))
+            .assertNext(statuses -> assertEquals(List.of(101L, 100L), List.copyOf(statuses.keySet())))
+            .verifyComplete();
+    }
+
     @Test
     void emptyAllowUser() {
         StepVerifier.create(userQueueService.allowUser("default", 3L))
@@ -90,6 +181,41 @@ class UserQueueServiceTest {
             .verifyComplete();
     }
 
+    @Test
+    void admitUsers() {
+        // 3명 유저 등록 후 2명 접속 허용 요청 -> 대기 순서대로 2명의 id 리턴, 남은 1명은 대기 순번 1
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.registerWaitQueue("default", 102L))
+                .then(userQueueService.admitUsers("default", 2L)))
+            .expectNext(List.of(100L, 101L))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.isAllowed("default", 101L)
+                .zipWith(userQueueService.getRank("default", 102L)))
+            .assertNext(tuple -> {
+                assertTrue(tuple.getT1());
+                assertEquals(1L, tuple.getT2());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void activeQueues() {
+        // 등록된 큐는 활성 큐 목록에 추가되고, 대기자가 모두 허용되면 목록에서 제거
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("other", 100L))
+                .thenMany(userQueueService.getActiveQueues())
+                .collectList())
+            .assertNext(queues -> assertEquals(Set.of("default", "other"), Set.copyOf(queues)))
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.allowUser("default", 1L)
+                .thenMany(userQueueService.getActiveQueues()))
+            .expectNext("other")
+            .verifyComplete();
+    }
+
     @Test
     void allowUserAfterRegisterWaitQueue() {
         // 3명 유저 등록 -> 5명 접속 허용 요청 -> 1명 유저 등록 -> 1 리턴 (대기번호 1)
@@ -102,6 +228,18 @@ class UserQueueServiceTest {
             .verifyComplete();
     }
 
+    @Test
+    void getQueueStats() {
+        // 3명 등록 후 2명 허용 -> 대기 1명, 허용 2명, 누적 허용 2명
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.registerWaitQueue("default", 102L))
+                .then(userQueueService.allowUser("default", 2L))
+                .then(userQueueService.getQueueStats("default")))
+            .expectNext(new QueueStats(1L, 2L, 2L))
+            .verifyComplete();
+    }
+
     @Test
     void isNotAllowed() {
         // 접속 가능 대기열에 아무것도 없는 상태로 접속 가능 여부 조회 -> false
@@ -130,6 +268,43 @@ class UserQueueServiceTest {
             .verifyComplete();
     }
 
+    @Test
+    void expiredProceedUser() {
+        // 접속 허용 유지 시간(5분)이 지난 사용자는 허용되지 않은 것으로 간주하고, 정리 시 제거
+        var expiredAt = Instant.now().minus(Duration.ofHours(1)).getEpochSecond();
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.allowUser("default", 1L))
+                .then(reactiveRedisTemplate.opsForZSet().add("users:queue:default:proceed", "101", expiredAt))
+                .then(userQueueService.isAllowed("default", 101L)))
+            .expectNext(false)
+            .verifyComplete();
+
+        StepVerifier.create(userQueueService.expireProceedUsers("default")
+                .zipWith(userQueueService.getProceedSize("default")))
+            .assertNext(tuple -> {
+                assertEquals(1L, tuple.getT1());
+                assertEquals(1L, tuple.getT2());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void touchProceed() {
+        // 허용된 사용자는 touch 시 허용 시각이 갱신되고, 허용되지 않은 사용자는 갱신되지 않음
+        var allowedAt = Instant.now().minus(Duration.ofMinutes(1)).getEpochSecond();
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().add("users:queue:default:proceed", "100", allowedAt)
+                .then(userQueueService.touchProceed("default", 100L))
+                .zipWith(userQueueService.touchProceed("default", 101L)))
+            .assertNext(tuple -> {
+                assertTrue(tuple.getT1());
+                assertFalse(tuple.getT2());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(reactiveRedisTemplate.opsForZSet().score("users:queue:default:proceed", "100"))
+            .assertNext(score -> assertTrue(score > allowedAt))
+            .verifyComplete();
+    }
 
     @Test
     void getRank() {
@@ -145,6 +320,23 @@ class UserQueueServiceTest {
             .verifyComplete();
     }
 
+    @Test
+    void getQueueStatuses() {
+        // 100, 101, 102 등록 후 1명 허용 -> 100은 허용, 101/102는 대기 순번 1/2, 등록되지 않은 103은 -1
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.registerWaitQueue("default", 101L))
+                .then(userQueueService.registerWaitQueue("default", 102L))
+                .then(userQueueService.allowUser("default", 1L))
+                .then(userQueueService.getQueueStatuses("default", List.of(100L, 101L, 102L, 103L))))
+            .assertNext(statuses -> {
+                assertEquals(new QueueStatusResponse(-1L, true), statuses.get(100L));
+                assertEquals(new QueueStatusResponse(1L, false), statuses.get(101L));
+                assertEquals(new QueueStatusResponse(2L, false), statuses.get(102L));
+                assertEquals(new QueueStatusResponse(-1L, false), statuses.get(103L));
+            })
+            .verifyComplete();
+    }
+
     @Test
     void emptyRank() {
         StepVerifier.create(userQueueService.getRank("default", 100L))
@@ -160,10 +352,32 @@ class UserQueueServiceTest {
             .verifyComplete();
     }
 
+    @Test
+    @DisplayName("토큰 값이 유효하지만 접속 허용되지 않은 경우")
+    void isNotAdmittedByToken() {
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.isAllowedByToken("default", 100L, "d333a5d4eb24f3f5cdd767d79b8c01aad3cd73d3537c70dec430455d37afe4b8")))
+            .expectNext(false)
+            .verifyComplete();
+    }
+
     @Test
     @DisplayName("토큰 값이 유효한 경우")
     void isAllowedByToken() {
-        StepVerifier.create(userQueueService.isAllowedByToken("default", 100L, "d333a5d4eb24f3f5cdd767d79b8c01aad3cd73d3537c70dec430455d37afe4b8"))
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.allowUser("default", 1L))
+                .then(userQueueService.isAllowedByToken("default", 100L, "d333a5d4eb24f3f5cdd767d79b8c01aad3cd73d3537c70dec430455d37afe4b8")))
+            .expectNext(true)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("허용이 확인된 사용자는 redis 를 조회하지 않고 캐시로 확인")
+    void isAllowedFromCache() {
+        StepVerifier.create(userQueueService.registerWaitQueue("default", 100L)
+                .then(userQueueService.allowUser("default", 1L))
+                .then(reactiveRedisTemplate.delete("users:queue:default:proceed"))
+                .then(userQueueService.isAllowed("default", 100L)))
             .expectNext(true)
             .verifyComplete();
     }
@@ -0,0 +1,145 @@
+package com.example.queuingsystemflow.service;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class UserQueueStatusBroadcasterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private UserQueueService userQueueService;
+
+    @Autowired
+    private UserQueueStatusBroadcaster userQueueStatusBroadcaster;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private AdmittedUserCache admittedUserCache;
+
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void beforeEach() {
+        ReactiveRedisConnection reactiveConnection = reactiveRedisTemplate.getConnectionFactory().getReactiveConnection();
+        reactiveConnection.serverCommands().flushAll().block();
+        admittedUserCache.invalidateAll();
+        lookupCoalescer.invalidateAll();
+
+        // 같은 application context 에 요청 (서버 포트를 따로 열지 않음)
+        webTestClient = WebTestClient.bindToApplicationContext(applicationContext)
+            .configureClient()
+            .responseTimeout(TIMEOUT)
+            .build();
+    }
+
+    @Test
+    void pushRankUntilAllowed() throws InterruptedException {
+        // 연결 직후 현재 순번, 이후 broadcast 마다 바뀐 순번, 허용되면 마지막 상태를 보내고 종료
+        userQueueService.registerWaitQueueBulk("default", Flux.just(100L, 101L)).blockLast();
+
+        StepVerifier.create(streamRank(101L))
+            .expectNext(new QueueStatusResponse(2L, false))
+            .then(() -> allowAndBroadcast(1L))
+            .expectNext(new QueueStatusResponse(1L, false))
+            .then(() -> allowAndBroadcast(1L))
+            .expectNext(new QueueStatusResponse(-1L, true))
+            .expectComplete()
+            .verify(TIMEOUT);
+
+        awaitUnsubscribed(101L);
+    }
+
+    @Test
+    void removeSinkOnCancel() throws InterruptedException {
+        // 연결이 끊기면 사용자의 sink 제거 (다음 broadcast 대상에서 빠짐)
+        userQueueService.registerWaitQueue("default", 100L).block();
+
+        StepVerifier.create(streamRank(100L))
+            .expectNext(new QueueStatusResponse(1L, false))
+            .then(() -> assertTrue(userQueueStatusBroadcaster.isSubscribed("default", 100L)))
+            .thenCancel()
+            .verify(TIMEOUT);
+
+        awaitUnsubscribed(100L);
+    }
+
+    @Test
+    void broadcastInBatches() throws Exception {
+        // 연결된 사용자가 한 번에 조회하는 수 (500명) 보다 많아도 broadcast 한 번으로 모두 전달
+        var userIds = LongStream.range(1000, 1501).boxed().toList();
+        userQueueService.registerWaitQueueBulk("default", Flux.fromIterable(userIds)).blockLast();
+
+        var connected = new CountDownLatch(userIds.size());
+        var lastStatuses = Flux.fromIterable(userIds)
+            .flatMap(userId -> userQueueStatusBroadcaster.subscribe("default", userId)
+                .doOnNext(status -> connected.countDown())
+                .last(), userIds.size())
+            .collectList()
+            .toFuture();
+        assertTrue(connected.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)); // 연결 직후 대기 순번 수신
+
+        allowAndBroadcast(userIds.size());
+
+        var statuses = lastStatuses.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertEquals(userIds.size(), statuses.size());
+        assertTrue(statuses.stream().allMatch(QueueStatusResponse::allowed));
+        for (var userId : userIds) {
+            awaitUnsubscribed(userId);
+        }
+    }
+
+    private Flux<QueueStatusResponse> streamRank(final Long userId) {
+        return webTestClient.get()
+            .uri("/api/v1/queue/rank/stream?user_id={userId}&queue=default", userId)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(QueueStatusResponse.class)
+            .getResponseBody();
+    }
+
+    private void allowAndBroadcast(final long count) {
+        userQueueService.allowUser("default", count).block();
+        userQueueStatusBroadcaster.broadcastQueueStatus();
+    }
+
+    // sink 는 연결이 끝난 뒤 정리되므로 잠시 기다리면서 확인
+    private void awaitUnsubscribed(final Long userId) throws InterruptedException {
+        for (int i = 0; i < 50 && userQueueStatusBroadcaster.isSubscribed("default", userId); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(userQueueStatusBroadcaster.isSubscribed("default", userId));
+    }
+}
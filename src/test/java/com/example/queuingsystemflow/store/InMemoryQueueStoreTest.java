@@ -0,0 +1,45 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryQueueStoreTest extends QueueStoreContract {
+
+    @Override
+    protected QueueStore createStore(final UserQueueProperties properties) {
+        return new InMemoryQueueStore(properties);
+    }
+
+    @Test
+    void removeQueueAfterProceedUsersExpire() throws InterruptedException {
+        // 대기자가 모두 빠져도 접속 허용 사용자가 만료될 때까지는 만료 처리 대상
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L))
+                .then(queueStore.admit("default", 2L))
+                .thenMany(queueStore.activeQueues().concatWith(queueStore.proceedQueues()))
+                .collectList())
+            .expectNext(List.of("default"))
+            .verifyComplete();
+
+        Thread.sleep(2100); // 접속 허용 유지 시간 (1초) 이후
+
+        // 모두 만료되면 큐를 제거하고, 다시 등록되면 등록 순번 / 누적 허용 수는 처음부터
+        StepVerifier.create(queueStore.expire("default")
+                .thenMany(queueStore.proceedQueues())
+                .collectList())
+            .expectNext(List.of())
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.register("default", "general", List.of(102L))
+                .then(queueStore.sequenceOf("default", 102L).zipWith(queueStore.admittedCount("default"))))
+            .assertNext(tuple -> {
+                assertEquals(1L, tuple.getT1());
+                assertEquals(0L, tuple.getT2());
+            })
+            .verifyComplete();
+    }
+}
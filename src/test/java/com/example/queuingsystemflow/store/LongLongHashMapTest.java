@@ -0,0 +1,51 @@
+package com.example.queuingsystemflow.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetRemove() {
+        var map = new LongLongHashMap();
+        map.put(0L, 10L); // 빈 칸 표시와 같은 key
+        map.put(1L, 11L);
+        map.put(-1L, 12L);
+
+        assertEquals(3, map.size());
+        assertEquals(10L, map.get(0L, -1L));
+        assertEquals(12L, map.get(-1L, -1L));
+        assertEquals(-1L, map.get(2L, -1L));
+
+        assertTrue(map.remove(0L));
+        assertFalse(map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void sameAsHashMap() {
+        // 삽입 / 삭제가 섞여도 (backward shift 삭제 포함) HashMap 과 같은 결과
+        var random = new Random(42);
+        var map = new LongLongHashMap();
+        var expected = new HashMap<Long, Long>();
+
+        for (int i = 0; i < 200_000; i++) {
+            var key = (long) random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key, -1L)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.queuingsystemflow.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProceedQueueTest {
+
+    @Test
+    void expireInAllowedOrder() {
+        var proceed = new ProceedQueue();
+        proceed.put(100L, 10L);
+        proceed.put(101L, 11L);
+        proceed.put(102L, 12L);
+
+        // cutoff 이전에 허용된 사용자만, 최대 limit 명까지 제거
+        assertEquals(1L, proceed.expire(12L, 1L));
+        assertEquals(Long.MIN_VALUE, proceed.get(100L, Long.MIN_VALUE));
+        assertEquals(1L, proceed.expire(12L, 10L));
+        assertEquals(1, proceed.size());
+        assertEquals(12L, proceed.get(102L, Long.MIN_VALUE));
+    }
+
+    @Test
+    void skipTouchedUsers() {
+        // 연장된 사용자는 이전 허용 시각으로 만료되지 않고, 연장된 시각이 지나면 만료
+        var proceed = new ProceedQueue();
+        proceed.put(100L, 10L);
+        proceed.put(101L, 11L);
+        proceed.put(100L, 20L);
+
+        assertEquals(1L, proceed.expire(15L, 10L));
+        assertEquals(20L, proceed.get(100L, Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, proceed.get(101L, Long.MIN_VALUE));
+
+        assertEquals(1L, proceed.expire(21L, 10L));
+        assertEquals(0, proceed.size());
+    }
+
+    @Test
+    void growAfterWrapAround() {
+        // ring buffer 가 한 바퀴 돈 뒤에 확장되어도 허용 순서 유지
+        var proceed = new ProceedQueue();
+        for (long userId = 0; userId < 50; userId++) {
+            proceed.put(userId, userId);
+        }
+        assertEquals(40L, proceed.expire(40L, 100L));
+        for (long userId = 50; userId < 200; userId++) {
+            proceed.put(userId, userId);
+        }
+
+        assertEquals(150L, proceed.expire(190L, 1000L));
+        assertEquals(10, proceed.size());
+        assertEquals(190L, proceed.get(190L, Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, proceed.get(189L, Long.MIN_VALUE));
+    }
+}
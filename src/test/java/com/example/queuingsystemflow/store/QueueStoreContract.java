@@ -0,0 +1,190 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import com.example.queuingsystemflow.dto.QueueStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 모든 QueueStore 구현이 같은 결과를 내야 하는 동작 (구현 별 테스트가 상속해서 실행)
+ * - general (비중 1), vip (비중 2) 레인, ordering=sequence, 접속 허용 유지 시간 1초
+ */
+abstract class QueueStoreContract {
+
+    protected QueueStore queueStore;
+
+    // 비어 있는 저장소 생성
+    protected abstract QueueStore createStore(UserQueueProperties properties);
+
+    @BeforeEach
+    public void beforeEach() {
+        queueStore = createStore(TestQueueProperties.of(
+            "ordering=sequence",
+            "proceed.session-window=1s",
+            "lanes.vip=2",
+            "lanes.general=1"
+        ));
+    }
+
+    @Test
+    void registerInArrivalOrder() {
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L, 102L, 101L)))
+            .expectNext(List.of(
+                new Registration(100L, true, 1L),
+                new Registration(101L, true, 2L),
+                new Registration(102L, true, 3L),
+                new Registration(101L, false, 2L)
+            ))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.activeQueues())
+            .expectNext("default")
+            .verifyComplete();
+    }
+
+    @Test
+    void registerInLanes() {
+        // 대기 순번은 레인 안에서의 순번, 다른 레인에 이미 등록된 사용자는 그 레인의 순번
+        StepVerifier.create(queueStore.register("default", "general", List.of(300L, 301L))
+                .then(queueStore.register("default", "vip", List.of(100L, 300L))))
+            .expectNext(List.of(new Registration(100L, true, 1L), new Registration(300L, false, 1L)))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.rank("default", 301L))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void rankAndStatuses() {
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L))
+                .then(queueStore.admit("default", 1L))
+                .then(queueStore.statuses("default", List.of(101L, 100L, 999L))))
+            .expectNext(List.of(
+                new QueueStatusResponse(1L, false),
+                new QueueStatusResponse(-1L, true),
+                new QueueStatusResponse(-1L, false)
+            ))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.rank("default", 999L))
+            .expectNext(-1L)
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.rank("unknown", 100L))
+            .expectNext(-1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void admitByWeight() {
+        // general : vip = 1 : 2, 레인 순서 (general 먼저), 레인 안에서는 대기 순서대로
+        StepVerifier.create(queueStore.register("default", "vip", List.of(100L, 101L, 102L))
+                .then(queueStore.register("default", "general", List.of(300L, 301L, 302L)))
+                .then(queueStore.admit("default", 3L)))
+            .expectNext(List.of(300L, 100L, 101L))
+            .verifyComplete();
+
+        // 대기자가 없는 레인의 몫은 다른 레인이 가져가고, 모두 허용되면 활성 큐 목록에서 제거
+        StepVerifier.create(queueStore.admit("default", 10L))
+            .expectNext(List.of(301L, 302L, 102L))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.activeQueues())
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.stats("default"))
+            .assertNext(stats -> {
+                assertEquals(0L, stats.waitSize());
+                assertEquals(6L, stats.proceedSize());
+                assertEquals(6L, stats.admittedCount());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void emptyAdmit() {
+        StepVerifier.create(queueStore.admit("default", 3L))
+            .expectNext(List.of())
+            .verifyComplete();
+    }
+
+    @Test
+    void ranksAfterManyAdmissions() {
+        // 등록 / 허용이 섞여도 대기 순번 유지 (메모리 저장소의 배열 압축 / 확장 포함)
+        StepVerifier.create(queueStore.register("default", "general", LongStream.range(0, 300).boxed().toList())
+                .then(queueStore.admit("default", 290L))
+                .then(queueStore.register("default", "general", LongStream.range(300, 600).boxed().toList()))
+                .then(queueStore.admit("default", 100L))
+                .then(queueStore.rank("default", 450L).zipWith(queueStore.rank("default", 599L))))
+            .assertNext(tuple -> {
+                assertEquals(61L, tuple.getT1());
+                assertEquals(210L, tuple.getT2());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.proceedSize("default"))
+            .expectNext(390L)
+            .verifyComplete();
+    }
+
+    @Test
+    void isAllowedAndTouch() {
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L))
+                .then(queueStore.admit("default", 1L))
+                .then(queueStore.isAllowed("default", 100L).zipWith(queueStore.isAllowed("default", 101L))))
+            .assertNext(tuple -> {
+                assertTrue(tuple.getT1());
+                assertFalse(tuple.getT2());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.touch("default", 100L).zipWith(queueStore.touch("default", 101L)))
+            .assertNext(tuple -> {
+                assertTrue(tuple.getT1());
+                assertFalse(tuple.getT2());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void expire() throws InterruptedException {
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L))
+                .then(queueStore.admit("default", 1L)))
+            .expectNext(List.of(100L))
+            .verifyComplete();
+
+        Thread.sleep(2100); // 접속 허용 유지 시간 (1초) 이후
+
+        StepVerifier.create(queueStore.expire("default")
+                .then(queueStore.isAllowed("default", 100L).zipWith(queueStore.proceedSize("default"))))
+            .assertNext(tuple -> {
+                assertFalse(tuple.getT1());
+                assertEquals(0L, tuple.getT2());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void sequenceAndAdmittedCount() {
+        // approximate 순번 계산용 (등록 순번 - 누적 허용 수)
+        StepVerifier.create(queueStore.register("default", "general", List.of(100L, 101L, 102L))
+                .then(queueStore.admit("default", 1L))
+                .then(queueStore.sequenceOf("default", 102L).zipWith(queueStore.admittedCount("default"))))
+            .assertNext(tuple -> {
+                assertEquals(3L, tuple.getT1());
+                assertEquals(1L, tuple.getT2());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.sequenceOf("default", 100L))
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.config.RedisConfig;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import redis.embedded.RedisServer;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.example.queuingsystemflow.config.UserQueueProperties.GENERAL_LANE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * shard 를 나눈 큐를 embedded redis 3대로 구성한 redis cluster 에서 검증
+ * - hot 큐의 shard 3개가 서로 다른 노드에 들어가도록 slot 을 나눠서 배정
+ * - 노드 간 시계 차이는 재현할 수 없으므로 (같은 서버의 시계) 순번 합산 / 허용 순서 / 활성 큐 목록 관리만 검증
+ */
+class RedisClusterQueueStoreTest {
+
+    private static final List<Integer> PORTS = List.of(46380, 46381, 46382); // cluster bus 는 port + 10000 을 사용
+    private static final int SHARDS = 3;
+
+    private static final List<RedisServer> servers = new ArrayList<>();
+    private static final List<RedisClient> clients = new ArrayList<>();
+    private static final List<StatefulRedisConnection<String, String>> nodes = new ArrayList<>();
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisQueueStore queueStore;
+
+    @BeforeAll
+    static void startCluster() throws IOException, InterruptedException {
+        var configDirectory = Files.createTempDirectory("redis-cluster");
+        for (var port : PORTS) {
+            var server = RedisServer.newRedisServer()
+                .port(port)
+                .setting("cluster-enabled yes")
+                .setting("cluster-config-file " + configDirectory.resolve("nodes-" + port + ".conf"))
+                .build();
+            server.start();
+            servers.add(server);
+
+            var client = RedisClient.create(RedisURI.create("127.0.0.1", port));
+            clients.add(client);
+            nodes.add(client.connect());
+        }
+
+        var ranges = slotRanges();
+        for (int node = 0; node < nodes.size(); node++) {
+            nodes.get(node).sync().clusterAddSlots(IntStream.rangeClosed(ranges[node][0], ranges[node][1]).toArray());
+        }
+        for (var port : PORTS.subList(1, PORTS.size())) {
+            nodes.get(0).sync().clusterMeet("127.0.0.1", port);
+        }
+        awaitClusterReady();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisClusterConfiguration(
+            PORTS.stream().map(port -> "127.0.0.1:" + port).toList()
+        ));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopCluster() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        nodes.forEach(StatefulRedisConnection::close);
+        clients.forEach(RedisClient::shutdown);
+        for (var server : servers) {
+            server.stop();
+        }
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        nodes.forEach(node -> node.sync().flushall());
+
+        var properties = TestQueueProperties.of("cluster.hash-tags=true", "shards.hot=" + SHARDS);
+        queueStore = new RedisQueueStore(
+            new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string()),
+            new RedisConfig().userIdRedisTemplate(connectionFactory),
+            properties
+        );
+    }
+
+    @Test
+    void spreadShardsAcrossNodes() {
+        // userId 에 따라 shard 0, 1, 2 에 등록 -> 노드마다 하나의 shard 대기 큐
+        StepVerifier.create(queueStore.register("hot", GENERAL_LANE, List.of(100L, 101L, 102L)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        for (int node = 0; node < nodes.size(); node++) {
+            assertEquals(1, nodes.get(node).sync().keys("users:queue:{hot#?}:wait").size(), "node " + node);
+        }
+    }
+
+    @Test
+    void mergeRanksAcrossNodes() {
+        // 서로 다른 노드의 shard 에 등록되어도 대기 순번은 전체 등록 순서
+        StepVerifier.create(Flux.range(100, 6)
+                .concatMap(userId -> queueStore.register("hot", GENERAL_LANE, List.of(userId.longValue())))
+                .map(registrations -> registrations.get(0).rank())
+                .collectList())
+            .expectNext(List.of(1L, 2L, 3L, 4L, 5L, 6L))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.statuses("hot", List.of(105L, 100L, 999L)))
+            .assertNext(statuses -> {
+                assertEquals(6L, statuses.get(0).rank());
+                assertEquals(1L, statuses.get(1).rank());
+                assertEquals(-1L, statuses.get(2).rank());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void admitInGlobalOrderAcrossNodes() {
+        // 앞쪽 대기자 3명이 모두 shard 0 에 있으면 shard 0 에서만 3명 허용
+        StepVerifier.create(Flux.just(99L, 102L, 105L, 100L, 103L, 101L)
+                .concatMap(userId -> queueStore.register("hot", GENERAL_LANE, List.of(userId)))
+                .then(queueStore.admit("hot", 3)))
+            .assertNext(admitted -> assertEquals(List.of(99L, 102L, 105L), admitted))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.statuses("hot", List.of(100L, 103L, 101L, 99L)))
+            .assertNext(statuses -> {
+                assertEquals(1L, statuses.get(0).rank());
+                assertEquals(2L, statuses.get(1).rank());
+                assertEquals(3L, statuses.get(2).rank());
+                assertTrue(statuses.get(3).allowed());
+            })
+            .verifyComplete();
+
+        // 남은 대기자가 shard 1, 2 에만 있어도 허용 수를 모두 채우고, 모든 shard 가 비면 활성 큐 목록에서 제거
+        StepVerifier.create(queueStore.admit("hot", 5))
+            .assertNext(admitted -> assertEquals(3, admitted.size()))
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.activeQueues())
+            .verifyComplete();
+    }
+
+    // hot 큐의 shard 별 slot 사이를 나눠서 노드 순서대로 배정할 slot 범위
+    private static int[][] slotRanges() {
+        var slots = IntStream.range(0, SHARDS)
+            .map(shard -> SlotHash.getSlot("{hot#" + shard + "}"))
+            .sorted()
+            .toArray();
+        assertEquals(SHARDS, IntStream.of(slots).distinct().count(), "shard slots must differ");
+
+        var ranges = new int[SHARDS][2];
+        var start = 0;
+        for (int node = 0; node < SHARDS; node++) {
+            var end = node == SHARDS - 1 ? SlotHash.SLOT_COUNT - 1 : (slots[node] + slots[node + 1]) / 2;
+            ranges[node] = new int[]{start, end};
+            start = end + 1;
+        }
+        return ranges;
+    }
+
+    private static void awaitClusterReady() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (nodes.stream().allMatch(node -> node.sync().clusterInfo().contains("cluster_state:ok")
+                && node.sync().clusterSlots().size() == SHARDS)) {
+                return ;
+            }
+            Thread.sleep(100);
+        }
+        fail("redis cluster is not ready");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.queuingsystemflow.store;
+
+import com.example.queuingsystemflow.EmbeddedRedis;
+import com.example.queuingsystemflow.TestQueueProperties;
+import com.example.queuingsystemflow.config.UserQueueProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@SpringBootTest
+@Import(EmbeddedRedis.class)
+@ActiveProfiles("test") // application.yaml에서 설정한 포트번호 63790 사용
+class RedisQueueStoreTest extends QueueStoreContract {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Long> userIdRedisTemplate;
+
+    @Override
+    protected QueueStore createStore(final UserQueueProperties properties) {
+        reactiveRedisTemplate.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        return new RedisQueueStore(reactiveRedisTemplate, userIdRedisTemplate, properties);
+    }
+
+    @Test
+    void backfillRegistriesOnStartup() {
+        // 큐 목록이 생기기 전부터 남아 있던 대기 큐 / 접속 허용 큐는 SCAN 해서 목록에 추가
+        var queueStore = (RedisQueueStore) createStore(TestQueueProperties.of("lanes.general=1", "lanes.vip=1", "shards.hot=2"));
+        StepVerifier.create(Flux.concat(
+                reactiveRedisTemplate.opsForZSet().add("users:queue:legacy:wait", "100", 1),
+                reactiveRedisTemplate.opsForZSet().add("users:queue:vip-only:wait:vip", "101", 1),
+                reactiveRedisTemplate.opsForZSet().add("users:queue:hot#1:wait", "102", 1),
+                reactiveRedisTemplate.opsForZSet().add("users:queue:drained:proceed", "103", 1),
+                reactiveRedisTemplate.opsForValue().set("users:queue:legacy:seq", "1")
+            ).then(queueStore.backfillRegistries()))
+            .expectNext(4L)
+            .verifyComplete();
+
+        StepVerifier.create(queueStore.activeQueues().sort().collectList())
+            .expectNext(List.of("hot", "legacy", "vip-only"))
+            .verifyComplete();
+        StepVerifier.create(queueStore.proceedQueues().collectList())
+            .expectNext(List.of("drained"))
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.queuingsystemflow.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenEngineTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Test
+    void sha256Token() {
+        // secret 이 없으면 기존 SHA-256 토큰과 동일
+        var engine = new TokenEngine(null, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        var token = "d333a5d4eb24f3f5cdd767d79b8c01aad3cd73d3537c70dec430455d37afe4b8";
+
+        assertEquals(token, engine.generate("default", 100L));
+        assertTrue(engine.verify("default", 100L, token));
+        assertTrue(engine.verify("default", 100L, token.toUpperCase()));
+        assertFalse(engine.verify("default", 101L, token));
+        assertFalse(engine.verify("default", 100L, ""));
+        assertFalse(engine.verify("default", 100L, "zz"));
+    }
+
+    @Test
+    void hmacToken() {
+        var engine = new TokenEngine("secret", Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        var token = engine.generate("default", 100L);
+
+        assertTrue(token.startsWith(NOW.plusSeconds(300).getEpochSecond() + "."));
+        assertTrue(engine.verify("default", 100L, token));
+        assertFalse(engine.verify("default", 101L, token));
+        assertFalse(engine.verify("other", 100L, token));
+
+        // 키를 모르면 기존 형식의 토큰이나 만료 시각을 바꾼 토큰은 통과하지 못함
+        assertFalse(engine.verify("default", 100L, "d333a5d4eb24f3f5cdd767d79b8c01aad3cd73d3537c70dec430455d37afe4b8"));
+        assertFalse(engine.verify("default", 100L, (NOW.getEpochSecond() + 3600) + token.substring(token.indexOf('.'))));
+        assertFalse(new TokenEngine("other-secret", Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC)).verify("default", 100L, token));
+    }
+
+    @Test
+    void expiredHmacToken() {
+        var token = new TokenEngine("secret", Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC)).generate("default", 100L);
+        var later = new TokenEngine("secret", Duration.ofMinutes(5), Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+
+        assertFalse(later.verify("default", 100L, token));
+    }
+}